@@ -0,0 +1,164 @@
+import java.util.function.IntFunction;
+/**
+ * Class searches the shortest path with A* from both junctions of the start
+ * road, using {@link Landmarks} lower bounds of the length still to go (the
+ * ALT algorithm). The bound of a junction is the smaller of the bounds via
+ * the two junctions of the goal road, so it never overestimates and the
+ * result is the same as with {@link DijkstraSearch}, while far fewer
+ * junctions are settled.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class AltSearch implements SearchEngine {
+	/** The road network to search. */
+	private final RoadNetwork network;
+	/** The landmark table of the network. */
+	private final Landmarks landmarks;
+	/** The search state. */
+	private final SearchWorkspace workspace;
+	/** The path of the last query. */
+	private final PathBuilder path;
+	/** The lower bound of the length to the goal of each reached junction. */
+	private final double[] bounds;
+	/** The queue key of each reached junction. */
+	private final double[] keys;
+	/** The number of junctions settled by the last query. */
+	private int settledCount;
+
+	/**
+	 * Description: Constructor with three arguments.
+	 *
+	 * @param network:
+	 *            The road network to search.
+	 * @param landmarks:
+	 *            The landmark table of the network.
+	 * @param queueType:
+	 *            The name of the priority queue.
+	 */
+	public AltSearch(RoadNetwork network, Landmarks landmarks, String queueType) {
+		this(network, landmarks, SearchWorkspace.workspaces(queueType));
+	}
+
+	/**
+	 * Description: Constructor with three arguments.
+	 *
+	 * @param network:
+	 *            The road network to search.
+	 * @param landmarks:
+	 *            The landmark table of the network.
+	 * @param workspaces:
+	 *            Creates the search workspaces from the number of junctions.
+	 */
+	public AltSearch(RoadNetwork network, Landmarks landmarks, IntFunction<SearchWorkspace> workspaces) {
+		this.network = network;
+		this.landmarks = landmarks;
+		this.workspace = workspaces.apply(network.getJunctionCount());
+		this.path = new PathBuilder(network);
+		this.bounds = new double[network.getJunctionCount()];
+		this.keys = new double[network.getJunctionCount()];
+	}
+
+	@Override
+	public boolean route(int startLotNumber, int startRoad, int endLotNumber, int endRoad) {
+		workspace.reset();
+		settledCount = 0;
+		JunctionQueue priorityQueue = workspace.getQueue();
+		int goal1 = network.getRoadJunction1(endRoad);
+		int goal2 = network.getRoadJunction2(endRoad);
+		double goalOffset1 = network.lengthToLot(endRoad, goal1, endLotNumber);
+		double goalOffset2 = network.lengthToLot(endRoad, goal2, endLotNumber);
+
+		/* Stores the length of the shortest path from start to the goal. */
+		double shortestLength = Double.MAX_VALUE;
+		/* The last junction to the goal in the shortest path. */
+		int endJunction = -1;
+		/* The last key polled, which keys never go below. */
+		double lastKey = Double.NEGATIVE_INFINITY;
+
+		/* Both junctions of the start road are roots. */
+		int[] roots = { network.getRoadJunction1(startRoad), network.getRoadJunction2(startRoad) };
+		for (int root : roots) {
+			double length = network.lengthToLot(startRoad, root, startLotNumber);
+			if (length < workspace.getLengthToRoot(root)) {
+				reach(root, length, -1, startRoad, goal1, goalOffset1, goal2, goalOffset2, lastKey);
+			}
+		}
+
+		while (!priorityQueue.isEmpty()) {
+			int currentJunction = priorityQueue.poll();
+			/* Skip entries superseded by a shorter path. */
+			double key = priorityQueue.getPolledLength();
+			if (key > keys[currentJunction]) {
+				continue;
+			}
+			/* No junction left in the queue can lead to a shorter path. */
+			if (key >= shortestLength) {
+				break;
+			}
+			lastKey = key;
+			settledCount++;
+			double currentLength = workspace.getLengthToRoot(currentJunction);
+			for (int arc = network.firstArc(currentJunction); arc < network.lastArc(currentJunction); arc++) {
+				int road = network.getArcRoad(arc);
+				if (road != endRoad) {
+					int anotherJunction = network.getArcTarget(arc);
+					double newLength = currentLength + network.getArcLength(arc);
+					if (newLength >= workspace.getLengthToRoot(anotherJunction)) {
+						continue;
+					}
+					reach(anotherJunction, newLength, currentJunction, road, goal1, goalOffset1, goal2, goalOffset2,
+							lastKey);
+				} else {
+					double length = currentLength + network.lengthToLot(road, currentJunction, endLotNumber);
+					if (shortestLength > length) {
+						endJunction = currentJunction;
+						shortestLength = length;
+					}
+				}
+			}
+		}
+
+		/* Check whether the path is found. */
+		if (endJunction == -1) {
+			return false;
+		}
+		path.walkBack(workspace, endJunction, startRoad);
+		path.finish(startLotNumber, endRoad, endLotNumber);
+		return true;
+	}
+
+	/**
+	 * Description: Records a shorter path to the junction and queues it by
+	 * the length plus the lower bound of the length still to go. A junction
+	 * no path joins to the goal is not queued. The key is kept at least the
+	 * last polled key, so rounding in the bounds cannot move the search
+	 * backwards.
+	 */
+	private void reach(int junction, double length, int previousJunction, int road, int goal1, double goalOffset1,
+			int goal2, double goalOffset2, double lastKey) {
+		boolean reached = workspace.isReached(junction);
+		workspace.update(junction, length, previousJunction, road);
+		if (!reached) {
+			bounds[junction] = Math.min(landmarks.lowerBound(junction, goal1) + goalOffset1,
+					landmarks.lowerBound(junction, goal2) + goalOffset2);
+		}
+		if (bounds[junction] == Double.POSITIVE_INFINITY) {
+			keys[junction] = Double.POSITIVE_INFINITY;
+			return;
+		}
+		double key = Math.max(length + bounds[junction], lastKey);
+		keys[junction] = key;
+		workspace.getQueue().add(junction, key);
+	}
+
+	/* Accessors */
+	@Override
+	public PathBuilder getPath() {
+		return path;
+	}
+
+	public int getSettledCount() {
+		return settledCount;
+	}
+}
@@ -1,14 +1,14 @@
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
-import java.util.Comparator;
-import java.util.HashSet;
-import java.util.PriorityQueue;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 /**
  * Class to perform the search.
  * 
@@ -20,7 +20,7 @@ public class Assignment {
 	
 	public static void main(String[] args) {
 		
-		readQuaryInfo(args[0], args[1], args[2]);
+		readQuaryInfo(args[0], args[1], args[2], SearchOptions.parse(args, 3));
 
 	}
 
@@ -35,41 +35,53 @@ public class Assignment {
 	 *            The name of the output file.
 	 */
 	public static void readQuaryInfo(String environmentFile, String queryFile, String outputFile ) {
-		Graph graph = new Graph(environmentFile);
+		readQuaryInfo(environmentFile, queryFile, outputFile, new SearchOptions());
+	}
+
+	/**
+	 * Description: Read queries in the query file and answer them as a batch.
+	 * 
+	 * @param environmentFile:
+	 *            The name of the environment file.
+	 * @param queryFile:
+	 *            The name of the query file.   
+	 * @param outputFile:
+	 *            The name of the output file.
+	 * @param options:
+	 *            The search engine, queue and number of worker threads to use.
+	 */
+	public static void readQuaryInfo(String environmentFile, String queryFile, String outputFile,
+			SearchOptions options) {
 		try {
-			File myFile = new File(queryFile);
-			FileReader fileReader = new FileReader(myFile);
-
-			BufferedReader reader = new BufferedReader(fileReader);
-
-			String line = null;
-			int i = 0;
-			int startRoadNum = 0;
-			int endRoadNum = 0;
-			String startRoadName = "";
-			String endRoadName = "";
-
-			while ((line = reader.readLine()) != null) {
-				String[] result = line.split(";");
-				for (String token : result) {
-					String roadInfo = token.trim();
-					String name = roadInfo.replaceFirst("\\d+", "");
-					String num = roadInfo.replace(name, "");
-					int roadNum = Integer.parseInt(num);
-					if (i == 0) {
-						startRoadNum = roadNum;
-						startRoadName = name;
-					} else {
-						endRoadNum = roadNum;
-						endRoadName = name;
-					}
-					i++;
+			RoadNetwork network = loadNetwork(environmentFile, options);
+			List<Query> queries = readQueries(queryFile, network);
+			int[] order = QueryPlanner.groupByStartRoad(queries, network.getRoadCount());
+			Supplier<SearchEngine> engines = createEngines(network, options);
+			ResultCache cache = createCache(network, options);
+			if (cache != null) {
+				engines = cache.wrap(engines);
+			}
+			/* Enabled after the preprocessing, so only the queries are counted. */
+			boolean stats = options.isStats() || options.getTraceFile() != null;
+			if (stats) {
+				SearchStats.enable(network, options.getTraceFile() != null);
+			}
+			String[] results = new BatchSearch(network, options.getThreads(), engines).run(queries, order);
+			if (stats) {
+				SearchStats.disable();
+				SearchStats.report(System.out);
+				if (cache != null) {
+					cache.report(System.out);
+				}
+				if (options.getTraceFile() != null) {
+					SearchStats.writeTrace(options.getTraceFile());
+				}
+			}
+			try (ResultSink sink = createSink(outputFile, options)) {
+				for (String result : results) {
+					sink.write(result);
 				}
-				i = 0;		
-				search(startRoadNum, graph.getRoadByName(startRoadName), endRoadNum, graph.getRoadByName(endRoadName), outputFile);
-				graph.reset();
 			}
-			reader.close();
 		} catch (Exception ex) {
 			ex.printStackTrace();
 		}
@@ -77,105 +89,291 @@ public class Assignment {
 	}
 
 	/**
-	 * Description: Search the map according to the given information.
+	 * Description: Loads the road network. A {@link NetworkSnapshot} of the
+	 * environment file is used if it is newer than the file, unless the
+	 * options turn snapshots off. Otherwise the file is read by the loader
+	 * named by the options: "mapped" (the default) parses the memory-mapped
+	 * file with {@link EnvironmentLoader}, on the worker threads if the file
+	 * is large, and "graph" reads it into a {@link Graph} first. The loaded
+	 * junctions and roads are then renumbered in the order named by the
+	 * options (see {@link JunctionOrder}); a snapshot keeps the ids it was
+	 * written with. Last, the road and arc numbers are moved off the heap if
+	 * the options store them "direct".
 	 * 
-	 * @param startLotNumber:
+	 * @param environmentFile:
 	 *            The name of the environment file.
-	 * @param startRoad:
-	 *            The name of the query file.   
+	 * @param options:
+	 *            The options naming the loader and whether to use snapshots.
+	 * 
+	 * @return network:
+	 *            The road network.
+	 */
+	public static RoadNetwork loadNetwork(String environmentFile, SearchOptions options) throws Exception {
+		String store = options.getStore();
+		if (!store.equals("heap") && !store.equals("direct")) {
+			throw new IllegalArgumentException("Unknown store: " + store);
+		}
+		String snapshotFile = NetworkSnapshot.snapshotFile(environmentFile);
+		String loader = options.getLoader();
+		RoadNetwork network;
+		if (options.isSnapshot() && NetworkSnapshot.isFresh(environmentFile, snapshotFile)) {
+			network = NetworkSnapshot.load(snapshotFile);
+		} else if (loader.equals("mapped")) {
+			network = JunctionOrder.apply(EnvironmentLoader.load(environmentFile, options.getThreads()),
+					options.getOrder());
+		} else if (loader.equals("graph")) {
+			network = JunctionOrder.apply(new Graph(environmentFile).getNetwork(), options.getOrder());
+		} else {
+			throw new IllegalArgumentException("Unknown loader: " + loader);
+		}
+		if (store.equals("direct")) {
+			network.storeOffHeap();
+		}
+		return network;
+	}
+
+	/**
+	 * Description: Prepares the search engine named by the options. Any
+	 * preprocessing is done once here; the returned supplier creates one
+	 * engine per thread. Engines built on preprocessing fall back to a plain
+	 * search once a road change affects it, see {@link FallbackSearch}.
+	 * The engines take their search workspaces from {@link #createWorkspaces}.
+	 * 
+	 * @param network:
+	 *            The road network to search.
+	 * @param options:
+	 *            The options naming the engine and the queue.
+	 * 
+	 * @return engines:
+	 *            The supplier of engines.
+	 */
+	public static Supplier<SearchEngine> createEngines(final RoadNetwork network, SearchOptions options)
+			throws IOException {
+		final IntFunction<SearchWorkspace> workspaces = createWorkspaces(options, SearchStats.ROAD_NETWORK);
+		String mode = options.getMode();
+		if (mode.equals("dijkstra")) {
+			return () -> new DijkstraSearch(network, workspaces);
+		} else if (mode.equals("bidirectional")) {
+			return () -> new BidirectionalSearch(network, workspaces);
+		} else if (mode.equals("tree")) {
+			return () -> new ShortestPathTreeSearch(network, workspaces, null);
+		} else if (mode.equals("delta")) {
+			final double delta = options.getDelta();
+			return () -> new ShortestPathTreeSearch(network, workspaces,
+					new DeltaStepping(network, ForkJoinPool.commonPool(), delta));
+		} else if (mode.equals("alt")) {
+			final Landmarks landmarks = Landmarks.build(network, options.getLandmarkCount());
+			return () -> new FallbackSearch(network, new AltSearch(network, landmarks, workspaces), landmarks,
+					workspaces);
+		} else if (mode.equals("table")) {
+			if (options.getTableFile() == null) {
+				throw new IllegalArgumentException("Mode table needs -table tableFile");
+			}
+			final DistanceTable table = DistanceTable.load(options.getTableFile(), network);
+			return () -> new FallbackSearch(network, new DistanceTableSearch(network, table), table, workspaces);
+		} else if (mode.equals("ch")) {
+			final ContractionHierarchy hierarchy = options.getHierarchyFile() == null
+					? ContractionHierarchy.build(network)
+					: ContractionHierarchy.load(options.getHierarchyFile(), network);
+			final IntFunction<SearchWorkspace> upward = createWorkspaces(options, SearchStats.HIERARCHY);
+			return () -> new FallbackSearch(network, new ContractionHierarchySearch(network, hierarchy, upward),
+					hierarchy, workspaces);
+		} else if (mode.equals("hub")) {
+			final HubLabels labels = options.getLabelFile() == null ? HubLabels.build(network)
+					: HubLabels.load(options.getLabelFile(), network);
+			return () -> new FallbackSearch(network, new HubLabelSearch(network, labels), labels, workspaces);
+		}
+		throw new IllegalArgumentException("Unknown search mode: " + mode);
+	}
+
+	/**
+	 * Description: Gets the maker of the search workspaces, with the queue
+	 * named by the options. If the options ask for stats, each workspace is
+	 * a {@link CountingSearchWorkspace} around a {@link CountingJunctionQueue},
+	 * counting into the {@link SearchStats} of the thread making it as long
+	 * as the stats are enabled by then; the engines are made on their worker
+	 * threads once the batch starts.
+	 * 
+	 * @param options:
+	 *            The options naming the queue and whether to count.
+	 * @param graph:
+	 *            The graph the engine searches, {@link SearchStats#ROAD_NETWORK}
+	 *            or {@link SearchStats#HIERARCHY}.
+	 * 
+	 * @return workspaces:
+	 *            Creates a workspace from the number of junctions.
+	 */
+	public static IntFunction<SearchWorkspace> createWorkspaces(SearchOptions options, final int graph) {
+		final String queueType = options.getQueueType();
+		if (!options.isStats() && options.getTraceFile() == null) {
+			return SearchWorkspace.workspaces(queueType);
+		}
+		return junctionCount -> {
+			JunctionQueue queue = SearchWorkspace.createQueue(queueType, junctionCount);
+			SearchStats stats = SearchStats.forThread();
+			return stats == null ? new SearchWorkspace(junctionCount, queue)
+					: new CountingSearchWorkspace(junctionCount, new CountingJunctionQueue(queue, junctionCount, stats),
+							stats, graph);
+		};
+	}
+
+	/**
+	 * Description: Creates the result cache of the size named by the
+	 * options, shared by the engines of every thread.
+	 * 
+	 * @param network:
+	 *            The road network to search.
+	 * @param options:
+	 *            The options giving the number of result lines kept.
+	 * 
+	 * @return cache:
+	 *            The cache, or null if the size is 0.
+	 */
+	public static ResultCache createCache(RoadNetwork network, SearchOptions options) {
+		return options.getCacheSize() == 0 ? null : new ResultCache(network, options.getCacheSize());
+	}
+
+	/**
+	 * Description: Opens the result sink named by the options: "buffered"
+	 * (the default) keeps one buffered writer open, "channel" writes through
+	 * a file channel with a direct buffer and "reopen" opens the file for
+	 * every line.
+	 * 
 	 * @param outputFile:
 	 *            The name of the output file.
+	 * @param options:
+	 *            The options naming the sink and whether to append.
+	 * 
+	 * @return sink:
+	 *            The open sink.
+	 */
+	public static ResultSink createSink(String outputFile, SearchOptions options) throws IOException {
+		String output = options.getOutput();
+		if (output.equals("buffered")) {
+			return new BufferedResultSink(outputFile, options.isAppend());
+		} else if (output.equals("channel")) {
+			return new ChannelResultSink(outputFile, options.isAppend());
+		} else if (output.equals("reopen")) {
+			if (!options.isAppend()) {
+				new FileOutputStream(outputFile).close();
+			}
+			return new ReopeningResultSink(outputFile);
+		}
+		throw new IllegalArgumentException("Unknown output: " + output);
+	}
+
+	/**
+	 * Description: Reads all queries in the query file.
+	 * 
+	 * @param queryFile:
+	 *            The name of the query file.
+	 * @param network:
+	 *            The road network used to resolve road names.
+	 * 
+	 * @return queries:
+	 *            The queries in file order.
 	 */
-	public static void search(int startLotNumber, Road startRoad, int endLotNumber, Road endRoad, String outputFile) throws IOException {
+	public static List<Query> readQueries(String queryFile, RoadNetwork network) throws IOException {
+		List<Query> queries = new ArrayList<Query>();
+		FileReader fileReader = new FileReader(new File(queryFile));
+		try {
+			QueryScanner scanner = new QueryScanner(fileReader, network);
+			Query query;
+			while ((query = scanner.next()) != null) {
+				queries.add(query);
+			}
+		} finally {
+			fileReader.close();
+		}
+		return queries;
+	}
+
+	/**
+	 * Description: Parses one line of the query file.
+	 * 
+	 * @param line:
+	 *            The line, such as "3Rda ; 12Rdb".
+	 * @param network:
+	 *            The road network used to resolve road names.
+	 * 
+	 * @return query:
+	 *            The query, with -1 for road names not in the network.
+	 */
+	public static Query parseQuery(String line, RoadNetwork network) {
+		return QueryScanner.parse(line.toCharArray(), 0, line.length(), network);
+	}
+
+	/**
+	 * Description: Search the map for a query read from a query file.
+	 * 
+	 * @param network:
+	 *            The road network to search.
+	 * @param engine:
+	 *            The search engine.
+	 * @param query:
+	 *            The query, {@link Query#INVALID} for a line that could not
+	 *            be parsed.
+	 *            
+	 * @return result:
+	 *            The line to write for the query.
+	 */
+	public static String findPath(RoadNetwork network, SearchEngine engine, Query query) {
+		if (query == Query.INVALID) {
+			return "Invalid query\n";
+		}
+		return findPath(network, engine, query.getStartLotNumber(), query.getStartRoad(), query.getEndLotNumber(),
+				query.getEndRoad());
+	}
+
+	/**
+	 * Description: Search the map according to the given information.
+	 * 
+	 * @param network:
+	 *            The road network to search.
+	 * @param engine:
+	 *            The search engine.
+	 * @param startLotNumber:
+	 *            The lot number on the start road.
+	 * @param startRoad:
+	 *            The id of the start road, or -1 if the name is unknown.
+	 * @param endLotNumber:
+	 *            The lot number on the goal road.
+	 * @param endRoad:
+	 *            The id of the goal road, or -1 if the name is unknown.
+	 *            
+	 * @return result:
+	 *            The line to write for the query.
+	 */
+	public static String findPath(RoadNetwork network, SearchEngine engine, int startLotNumber, int startRoad,
+			int endLotNumber, int endRoad) {
 		/* Check whether the startRoad and endRoad are valid or not. */
-		if(startRoad == null || endRoad == null) {
-			writeResults("Invalid road name\n", outputFile);
-			return;
+		if (startRoad < 0 || endRoad < 0) {
+			return "Invalid road name\n";
 		}
 		
 		/* Check whether the startLotNumber and endLotNumber are valid not. */
-		if(startLotNumber < 1 ||startLotNumber>startRoad.getNLots()||
-				endLotNumber < 1 ||endLotNumber>endRoad.getNLots()) {
-			writeResults("Invalid lot number\n", outputFile);
-			return;
+		if(startLotNumber < 1 ||startLotNumber>network.getRoadLots(startRoad)||
+				endLotNumber < 1 ||endLotNumber>network.getRoadLots(endRoad)) {
+			return "Invalid lot number\n";
 		}
 		
-		/* Comparator used for priority queue. */
-		Comparator<Junction> cmp = new Comparator<Junction>() {
-			public int compare(Junction junction1, Junction junction2) {
-				return (int) (junction1.getLengthToRoot() - junction2.getLengthToRoot());
-			}
-		};
-
-		PriorityQueue<Junction> priorityQueue = new PriorityQueue<>(50, cmp);
-		
-		/* Stores the length of the shortest path from start to the goal. */
-		double shortestLength = Double.MAX_VALUE;
-		/* The last junction to the goal in the shortest path. */
-		Junction endJunction = null;
+		/* A closed road carries no traffic, not even to its own lots. */
+		if (network.isRoadClosed(startRoad) || network.isRoadClosed(endRoad)) {
+			return "no-path\n";
+		}
 
 		/* Check whether the start road is the same as the goal road. */
-		if (startRoad.equals(endRoad)) {
-			writeResults(startRoad.lengthToLot(startLotNumber, endLotNumber) + " ; " + startRoad.getName() + "\n", outputFile);
-			return;
+		if (startRoad == endRoad) {
+			return network.lengthBetweenLots(startRoad, startLotNumber, endLotNumber) + " ; "
+					+ network.getRoadName(startRoad) + "\n";
 		}
 
-		do {
-			if (priorityQueue.isEmpty()) {
-				Junction junction1 = startRoad.getJunction1();
-				junction1.setLengthToRoot(startRoad.lengthToLot(junction1, startLotNumber));
-				Junction junction2 = startRoad.getJunction2();
-				junction2.setLengthToRoot(startRoad.lengthToLot(junction2, startLotNumber));
-				junction1.setLastRoad(startRoad);
-				junction2.setLastRoad(startRoad);
-				priorityQueue.add(junction1);
-				priorityQueue.add(junction2);
-			}
-			
-			Junction currentJunction = priorityQueue.poll();
-			if (currentJunction.getLengthToRoot() > shortestLength) {
-				continue;
-			}
-			/* Gets all road accessible from the current junction. */
-			for (Road road : currentJunction.getRoads()) {
-				if (!road.getName().equals(endRoad.getName())) {
-					/* Get another junction of the road. */
-					Junction anotherJunction = road.getAnotherJunction(currentJunction);
-					/* The estimated length to root of the another junction. */
-					double newLength = currentJunction.getLengthToRoot() + road.getRoadLength();
-					/* Check which path to the another junction is the shortest one. */
-					if (anotherJunction.getLengthToRoot() != 0 && newLength > anotherJunction.getLengthToRoot()) {
-						continue;
-					}
-					anotherJunction.setLastJunction(currentJunction);
-					anotherJunction.setLastRoad(road);
-					anotherJunction.setLengthToRoot(newLength);					
-					priorityQueue.add(anotherJunction);
-				} else {
-					double length = currentJunction.getLengthToRoot() + road.lengthToLot(currentJunction, endLotNumber);
-					if (shortestLength > length) {
-						endJunction = currentJunction;
-						shortestLength = length;
-					}
-					break;
-				}
-			}
-		} while (!priorityQueue.isEmpty());
-
-		/* Check whether the path is found. */
-		if (endJunction == null) {
-			writeResults("no-path\n", outputFile);
-		} else {
-			String path = endJunction.getLastRoad().getName() + "-" + endJunction.getName() + "-" + endRoad.getName()
-					+ "\n";
-			while (endJunction.getLastJunction() != null) {
-				endJunction = endJunction.getLastJunction();
-				path = endJunction.getLastRoad().getName() + "-" + endJunction.getName() + "-" + path;
-			}
-			path = shortestLength + " ; " + path;
-			writeResults(path, outputFile);
+		/* Roads in different parts of the map are never joined; no search needed. */
+		if (!network.isConnected(startRoad, endRoad)) {
+			return "no-path\n";
 		}
-		return;
+
+		return engine.search(startLotNumber, startRoad, endLotNumber, endRoad);
 	}
 
 	/**
@@ -0,0 +1,120 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+/**
+ * Class answers a batch of queries on a pool of worker threads. The road
+ * network is shared read-only and every worker has its own search engine.
+ * Results are returned in input order, so the output is the same as the
+ * serial run.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class BatchSearch {
+	/** The number of queries handed to a worker at a time. */
+	private static final int CHUNK_SIZE = 256;
+
+	/** The road network to search. */
+	private final RoadNetwork network;
+	/** The number of worker threads. */
+	private final int threads;
+	/** The search engine of each worker thread. */
+	private final ThreadLocal<SearchEngine> engines;
+
+	/**
+	 * Description: Constructor with three arguments.
+	 *
+	 * @param network:
+	 *            The road network to search.
+	 * @param threads:
+	 *            The number of worker threads, 1 runs on the calling thread.
+	 * @param engines:
+	 *            Creates the search engine of each worker thread.
+	 */
+	public BatchSearch(RoadNetwork network, int threads, Supplier<SearchEngine> engines) {
+		this.network = network;
+		this.threads = Math.max(1, threads);
+		this.engines = ThreadLocal.withInitial(engines);
+	}
+
+	/**
+	 * Description: Answers all queries in file order.
+	 *
+	 * @param queries:
+	 *            The queries in input order.
+	 *
+	 * @return results:
+	 *            The result line of each query, in input order.
+	 */
+	public String[] run(List<Query> queries) throws InterruptedException, ExecutionException {
+		int[] order = new int[queries.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		return run(queries, order);
+	}
+
+	/**
+	 * Description: Answers all queries in the planned order. A chunk handed
+	 * to a worker is extended to the end of its run of queries on the same
+	 * start road, so a group is answered by one engine.
+	 *
+	 * @param queries:
+	 *            The queries in input order.
+	 * @param order:
+	 *            The indexes of the queries in the order to answer them.
+	 *
+	 * @return results:
+	 *            The result line of each query, in input order.
+	 */
+	public String[] run(final List<Query> queries, final int[] order) throws InterruptedException, ExecutionException {
+		final String[] results = new String[queries.size()];
+		if (threads == 1) {
+			answer(queries, order, results, 0, order.length);
+			return results;
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			int from = 0;
+			while (from < order.length) {
+				int to = Math.min(from + CHUNK_SIZE, order.length);
+				while (to < order.length && queries.get(order[to]).getStartRoad() == queries.get(order[to - 1]).getStartRoad()) {
+					to++;
+				}
+				final int start = from;
+				final int end = to;
+				futures.add(pool.submit(() -> answer(queries, order, results, start, end)));
+				from = to;
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+		return results;
+	}
+
+	/**
+	 * Description: Answers the queries at positions [start, end) of the order
+	 * with the engine of the current thread, timing each query while the
+	 * {@link SearchStats} are enabled.
+	 */
+	private void answer(List<Query> queries, int[] order, String[] results, int start, int end) {
+		SearchEngine engine = engines.get();
+		SearchStats stats = SearchStats.forThread();
+		for (int i = start; i < end; i++) {
+			Query query = queries.get(order[i]);
+			long begin = stats == null ? 0 : System.nanoTime();
+			results[order[i]] = Assignment.findPath(network, engine, query);
+			if (stats != null) {
+				stats.record(order[i], System.nanoTime() - begin);
+			}
+		}
+	}
+}
@@ -0,0 +1,175 @@
+import java.util.function.IntFunction;
+/**
+ * Class searches the shortest path with bidirectional Dijkstra: one search
+ * grows from both junctions of the start road, the other from both
+ * junctions of the goal road, and they stop as soon as the frontiers meet
+ * on a path no later junction can improve.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class BidirectionalSearch implements SearchEngine {
+	/** The road network to search. */
+	private final RoadNetwork network;
+	/** The state of the search from the start lot. */
+	private final SearchWorkspace forward;
+	/** The state of the search from the goal lot. */
+	private final SearchWorkspace backward;
+	/** The path of the last query. */
+	private final PathBuilder path;
+
+	/** The id of the goal road of the current query, never crossed by either search. */
+	private int endRoad;
+	/** The length of the shortest path found so far. */
+	private double shortestLength;
+	/** The junction where the shortest path found so far meets. */
+	private int meetingJunction;
+
+	/**
+	 * Description: Constructor with two arguments.
+	 *
+	 * @param network:
+	 *            The road network to search.
+	 * @param queueType:
+	 *            The name of the priority queue.
+	 */
+	public BidirectionalSearch(RoadNetwork network, String queueType) {
+		this(network, SearchWorkspace.workspaces(queueType));
+	}
+
+	/**
+	 * Description: Constructor with two arguments.
+	 *
+	 * @param network:
+	 *            The road network to search.
+	 * @param workspaces:
+	 *            Creates the search workspaces from the number of junctions.
+	 */
+	public BidirectionalSearch(RoadNetwork network, IntFunction<SearchWorkspace> workspaces) {
+		this.network = network;
+		this.forward = workspaces.apply(network.getJunctionCount());
+		this.backward = workspaces.apply(network.getJunctionCount());
+		this.path = new PathBuilder(network);
+	}
+
+	@Override
+	public boolean route(int startLotNumber, int startRoad, int endLotNumber, int endRoad) {
+		this.endRoad = endRoad;
+		shortestLength = Double.MAX_VALUE;
+		meetingJunction = -1;
+		forward.reset();
+		backward.reset();
+		addRoots(forward, backward, startRoad, startLotNumber);
+		addRoots(backward, forward, endRoad, endLotNumber);
+
+		/* The length of the junction each search settled last, a lower bound of its queue. */
+		double forwardSettled = 0;
+		double backwardSettled = 0;
+		boolean forwardTurn = true;
+		while (!forward.getQueue().isEmpty() && !backward.getQueue().isEmpty()) {
+			if (forwardTurn) {
+				double settled = settleNext(forward, backward);
+				if (!Double.isNaN(settled)) {
+					forwardSettled = settled;
+				}
+			} else {
+				double settled = settleNext(backward, forward);
+				if (!Double.isNaN(settled)) {
+					backwardSettled = settled;
+				}
+			}
+			if (forwardSettled + backwardSettled >= shortestLength) {
+				break;
+			}
+			forwardTurn = !forwardTurn;
+		}
+
+		if (meetingJunction == -1) {
+			return false;
+		}
+		buildPath(startRoad, startLotNumber, endLotNumber);
+		return true;
+	}
+
+	/**
+	 * Description: Queues both junctions of a road as roots of one search.
+	 */
+	private void addRoots(SearchWorkspace self, SearchWorkspace other, int road, int lotNumber) {
+		int[] roots = { network.getRoadJunction1(road), network.getRoadJunction2(road) };
+		for (int root : roots) {
+			double length = network.lengthToLot(road, root, lotNumber);
+			if (length < self.getLengthToRoot(root)) {
+				self.update(root, length, -1, road);
+				self.getQueue().add(root, length);
+				meet(root, length, other);
+			}
+		}
+	}
+
+	/**
+	 * Description: Settles the next junction of one search and relaxes its
+	 * roads.
+	 *
+	 * @return length:
+	 *            The length of the settled junction, or NaN for a stale entry.
+	 */
+	private double settleNext(SearchWorkspace self, SearchWorkspace other) {
+		JunctionQueue queue = self.getQueue();
+		int currentJunction = queue.poll();
+		double currentLength = self.getLengthToRoot(currentJunction);
+		if (queue.getPolledLength() > currentLength) {
+			return Double.NaN;
+		}
+		for (int arc = network.firstArc(currentJunction); arc < network.lastArc(currentJunction); arc++) {
+			int road = network.getArcRoad(arc);
+			if (road == endRoad) {
+				continue;
+			}
+			int anotherJunction = network.getArcTarget(arc);
+			double newLength = currentLength + network.getArcLength(arc);
+			if (newLength >= self.getLengthToRoot(anotherJunction)) {
+				continue;
+			}
+			self.update(anotherJunction, newLength, currentJunction, road);
+			queue.add(anotherJunction, newLength);
+			meet(anotherJunction, newLength, other);
+		}
+		return currentLength;
+	}
+
+	/**
+	 * Description: Records the path through the junction if the other search
+	 * has reached it and the path is the shortest so far.
+	 */
+	private void meet(int junction, double length, SearchWorkspace other) {
+		if (other.isReached(junction)) {
+			double total = length + other.getLengthToRoot(junction);
+			if (total < shortestLength) {
+				shortestLength = total;
+				meetingJunction = junction;
+			}
+		}
+	}
+
+	/**
+	 * Description: Joins the two half paths at the meeting junction.
+	 */
+	private void buildPath(int startRoad, int startLotNumber, int endLotNumber) {
+		/* Junctions from the start road to the meeting junction. */
+		path.walkBack(forward, meetingJunction, startRoad);
+		/* Junctions from the meeting junction to the goal road. */
+		int junction = meetingJunction;
+		while (backward.getLastJunction(junction) != -1) {
+			int road = backward.getLastRoad(junction);
+			junction = backward.getLastJunction(junction);
+			path.add(road, junction);
+		}
+		path.finish(startLotNumber, endRoad, endLotNumber);
+	}
+
+	/* Accessors */
+	@Override
+	public PathBuilder getPath() {
+		return path;
+	}
+}
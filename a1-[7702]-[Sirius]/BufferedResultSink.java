@@ -0,0 +1,40 @@
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+/**
+ * Class writes the results through one {@link BufferedWriter} that stays
+ * open for the whole run.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class BufferedResultSink implements ResultSink {
+	/** The size of the buffer in chars. */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/** The writer of the output file. */
+	private final BufferedWriter output;
+
+	/**
+	 * Description: Constructor with two arguments.
+	 *
+	 * @param outputFileName:
+	 *            The name of the output file.
+	 * @param append:
+	 *            True to append to the file, false to replace it.
+	 */
+	public BufferedResultSink(String outputFileName, boolean append) throws IOException {
+		output = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFileName, append)), BUFFER_SIZE);
+	}
+
+	@Override
+	public void write(String result) throws IOException {
+		output.write(result);
+	}
+
+	@Override
+	public void close() throws IOException {
+		output.close();
+	}
+}
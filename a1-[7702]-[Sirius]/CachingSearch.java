@@ -0,0 +1,44 @@
+/**
+ * Class answers queries from a {@link ResultCache} shared by the engines
+ * of every thread, and with its own engine on a miss. Only
+ * {@link #search} goes through the cache; {@link #route} always searches,
+ * as the path it keeps belongs to the engine.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class CachingSearch implements SearchEngine {
+	/** The engine searching the misses. */
+	private final SearchEngine engine;
+	/** The cache shared by the engines. */
+	private final ResultCache cache;
+
+	/**
+	 * Description: Constructor with two arguments.
+	 *
+	 * @param engine:
+	 *            The engine searching the misses.
+	 * @param cache:
+	 *            The cache shared by the engines.
+	 */
+	public CachingSearch(SearchEngine engine, ResultCache cache) {
+		this.engine = engine;
+		this.cache = cache;
+	}
+
+	@Override
+	public boolean route(int startLotNumber, int startRoad, int endLotNumber, int endRoad) {
+		return engine.route(startLotNumber, startRoad, endLotNumber, endRoad);
+	}
+
+	@Override
+	public String search(int startLotNumber, int startRoad, int endLotNumber, int endRoad) {
+		return cache.search(engine, startLotNumber, startRoad, endLotNumber, endRoad);
+	}
+
+	/* Accessors */
+	@Override
+	public PathBuilder getPath() {
+		return engine.getPath();
+	}
+}
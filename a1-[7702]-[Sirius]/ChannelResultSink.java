@@ -0,0 +1,77 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+/**
+ * Class writes the results through a {@link FileChannel} with a large
+ * direct buffer. Lines are encoded straight into the buffer, which is
+ * written out only when full and when the sink is closed.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class ChannelResultSink implements ResultSink {
+	/** The size of the direct buffer in bytes. */
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	/** The channel of the output file. */
+	private final FileChannel channel;
+	/** The buffer of bytes not written yet. */
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	/** The encoder of the platform charset, as used by the other sinks. */
+	private final CharsetEncoder encoder = Charset.defaultCharset().newEncoder();
+
+	/**
+	 * Description: Constructor with two arguments.
+	 *
+	 * @param outputFileName:
+	 *            The name of the output file.
+	 * @param append:
+	 *            True to append to the file, false to replace it.
+	 */
+	public ChannelResultSink(String outputFileName, boolean append) throws IOException {
+		channel = FileChannel.open(Paths.get(outputFileName), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	@Override
+	public void write(String result) throws IOException {
+		CharBuffer chars = CharBuffer.wrap(result);
+		encoder.reset();
+		CoderResult coded;
+		while ((coded = encoder.encode(chars, buffer, true)).isOverflow()) {
+			drain();
+		}
+		if (coded.isError()) {
+			coded.throwException();
+		}
+		while (encoder.flush(buffer).isOverflow()) {
+			drain();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			drain();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Description: Writes the buffered bytes to the channel.
+	 */
+	private void drain() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
@@ -0,0 +1,570 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+/**
+ * Class represents a contraction hierarchy of the road network. Junctions
+ * are contracted one by one in order of importance; a shortcut is added
+ * between two neighbours of a contracted junction whenever no witness path
+ * avoiding it is as short. The query only follows edges towards more
+ * important junctions.
+ *
+ * Every edge is either a road or a shortcut made of two child edges, so a
+ * shortcut can be unpacked back into the roads it stands for. A road no
+ * edge stands for can be made longer or closed without changing any query.
+ *
+ * Usage: java -cp a1-[7702]-[Sirius].jar ContractionHierarchy environmentFile hierarchyFile [options]
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class ContractionHierarchy implements Preprocessing {
+	/** The number of junctions a witness search may settle when contracting. */
+	private static final int WITNESS_SETTLE_LIMIT = 100;
+	/** The number of junctions a witness search may settle when estimating a priority. */
+	private static final int ESTIMATE_SETTLE_LIMIT = 40;
+	/** Marks the first word of a hierarchy file. */
+	private static final int MAGIC = 0x43483032;
+
+	/** The number of junctions of the network. */
+	private int junctionCount;
+	/** The number of roads of the network. */
+	private int roadCount;
+	/** The {@link RoadNetwork#getLayoutHash()} of the network. */
+	private int layoutHash;
+	/** The first upward edge of each junction. */
+	private int[] upOffsets;
+	/** The more important junction at the other end of each upward edge. */
+	private int[] upTargets;
+	/** The length of each upward edge. */
+	private int[] upLengths;
+	/** The edge id of each upward edge, used to unpack the path. */
+	private int[] upEdges;
+	/** The first junction of each edge. */
+	private int[] edgeJunction1;
+	/** The second junction of each edge. */
+	private int[] edgeJunction2;
+	/** The road of each edge, or -1 for a shortcut. */
+	private int[] edgeRoads;
+	/** The child edge of each shortcut at the first junction. */
+	private int[] edgeChild1;
+	/** The child edge of each shortcut at the second junction. */
+	private int[] edgeChild2;
+	/** The contracted junction each shortcut skips, or -1 for a road. */
+	private int[] edgeMiddles;
+	/** Whether an edge stands for each road. */
+	private boolean[] usedRoads;
+	/** The version of the network the hierarchy was built from. */
+	private int buildVersion;
+
+	/* Working state of the contraction. */
+	/** The number of edges created so far. */
+	private int edgeCount;
+	/** The length of each edge. */
+	private int[] edgeLengths;
+	/** The neighbours of each junction in the remaining graph. */
+	private int[][] neighbours;
+	/** The edge to each neighbour. */
+	private int[][] neighbourEdges;
+	/** The number of neighbours of each junction. */
+	private int[] degrees;
+	/** Whether each junction has been contracted. */
+	private boolean[] contracted;
+	/** The number of contracted neighbours of each junction. */
+	private int[] deletedNeighbours;
+	/** The search state of the witness searches. */
+	private SearchWorkspace witness;
+
+	/**
+	 * Description: Constructor without arguments, used by {@link #build} and
+	 * {@link #load}.
+	 */
+	private ContractionHierarchy() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		/* Loads the network the way Assignment does, so the junction ids match. */
+		RoadNetwork network = Assignment.loadNetwork(args[0], SearchOptions.parse(args, 2));
+		long start = System.nanoTime();
+		ContractionHierarchy hierarchy = build(network);
+		System.out.printf("Contracted %d junctions into %d edges in %.1f s%n", network.getJunctionCount(),
+				hierarchy.getEdgeCount(), (System.nanoTime() - start) / 1e9);
+		hierarchy.save(args[1]);
+	}
+
+	/**
+	 * Description: Builds the contraction hierarchy of the road network.
+	 *
+	 * @param network:
+	 *            The road network.
+	 *
+	 * @return hierarchy:
+	 *            The contraction hierarchy.
+	 */
+	public static ContractionHierarchy build(RoadNetwork network) {
+		ContractionHierarchy hierarchy = new ContractionHierarchy();
+		hierarchy.contract(network);
+		hierarchy.markUsedRoads(network);
+		return hierarchy;
+	}
+
+	/**
+	 * Description: Contracts every junction and builds the upward edges.
+	 */
+	private void contract(RoadNetwork network) {
+		junctionCount = network.getJunctionCount();
+		roadCount = network.getRoadCount();
+		layoutHash = network.getLayoutHash();
+		int capacity = Math.max(16, roadCount * 2);
+		edgeJunction1 = new int[capacity];
+		edgeJunction2 = new int[capacity];
+		edgeLengths = new int[capacity];
+		edgeRoads = new int[capacity];
+		edgeChild1 = new int[capacity];
+		edgeChild2 = new int[capacity];
+		edgeMiddles = new int[capacity];
+		neighbours = new int[junctionCount][];
+		neighbourEdges = new int[junctionCount][];
+		degrees = new int[junctionCount];
+		contracted = new boolean[junctionCount];
+		deletedNeighbours = new int[junctionCount];
+		witness = new SearchWorkspace(junctionCount, "heap");
+		for (int junction = 0; junction < junctionCount; junction++) {
+			int degree = network.lastArc(junction) - network.firstArc(junction);
+			neighbours[junction] = new int[Math.max(4, degree)];
+			neighbourEdges[junction] = new int[Math.max(4, degree)];
+		}
+		/* Only the shortest road between two junctions matters; loops never do. */
+		for (int road = 0; road < roadCount; road++) {
+			int junction1 = network.getRoadJunction1(road);
+			int junction2 = network.getRoadJunction2(road);
+			if (junction1 != junction2 && !network.isRoadClosed(road)) {
+				addEdge(junction1, junction2, network.getRoadLength(road), road, -1, -1, -1);
+			}
+		}
+
+		/* Contract the junction with the lowest priority, updating priorities lazily. */
+		IndexedJunctionHeap order = new IndexedJunctionHeap(junctionCount);
+		for (int junction = 0; junction < junctionCount; junction++) {
+			order.add(junction, priority(junction));
+		}
+		int[] ranks = new int[junctionCount];
+		int rank = 0;
+		while (!order.isEmpty()) {
+			int junction = order.poll();
+			double current = priority(junction);
+			if (current > order.getPolledLength()) {
+				order.add(junction, current);
+				continue;
+			}
+			contractJunction(junction, false);
+			contracted[junction] = true;
+			ranks[junction] = rank++;
+			/* The junction leaves the lists of its neighbours, which keeps them short. */
+			for (int i = 0; i < degrees[junction]; i++) {
+				int neighbour = neighbours[junction][i];
+				deletedNeighbours[neighbour]++;
+				removeNeighbour(neighbour, junction);
+			}
+		}
+
+		/* What is left in the list of each junction leads to more important junctions. */
+		upOffsets = new int[junctionCount + 1];
+		for (int junction = 0; junction < junctionCount; junction++) {
+			for (int i = 0; i < degrees[junction]; i++) {
+				if (ranks[neighbours[junction][i]] > ranks[junction]) {
+					upOffsets[junction + 1]++;
+				}
+			}
+		}
+		for (int junction = 0; junction < junctionCount; junction++) {
+			upOffsets[junction + 1] += upOffsets[junction];
+		}
+		upTargets = new int[upOffsets[junctionCount]];
+		upLengths = new int[upTargets.length];
+		upEdges = new int[upTargets.length];
+		for (int junction = 0; junction < junctionCount; junction++) {
+			int next = upOffsets[junction];
+			for (int i = 0; i < degrees[junction]; i++) {
+				int neighbour = neighbours[junction][i];
+				if (ranks[neighbour] > ranks[junction]) {
+					upTargets[next] = neighbour;
+					upLengths[next] = edgeLengths[neighbourEdges[junction][i]];
+					upEdges[next] = neighbourEdges[junction][i];
+					next++;
+				}
+			}
+		}
+		edgeJunction1 = Arrays.copyOf(edgeJunction1, edgeCount);
+		edgeJunction2 = Arrays.copyOf(edgeJunction2, edgeCount);
+		edgeRoads = Arrays.copyOf(edgeRoads, edgeCount);
+		edgeChild1 = Arrays.copyOf(edgeChild1, edgeCount);
+		edgeChild2 = Arrays.copyOf(edgeChild2, edgeCount);
+		edgeMiddles = Arrays.copyOf(edgeMiddles, edgeCount);
+		edgeLengths = null;
+		neighbours = null;
+		neighbourEdges = null;
+		degrees = null;
+		contracted = null;
+		deletedNeighbours = null;
+		witness = null;
+	}
+
+	/**
+	 * Description: Gets the priority of the junction: the shortcuts its
+	 * contraction adds minus the edges it removes, plus the number of
+	 * neighbours already contracted to spread contraction evenly.
+	 */
+	private double priority(int junction) {
+		int shortcuts = contractJunction(junction, true);
+		int remaining = 0;
+		for (int i = 0; i < degrees[junction]; i++) {
+			if (!contracted[neighbours[junction][i]]) {
+				remaining++;
+			}
+		}
+		return shortcuts - remaining + deletedNeighbours[junction];
+	}
+
+	/**
+	 * Description: Contracts the junction, adding the shortcuts needed
+	 * between its remaining neighbours.
+	 *
+	 * @param junction:
+	 *            The junction to contract.
+	 * @param simulate:
+	 *            Only count the shortcuts without adding them.
+	 *
+	 * @return shortcuts:
+	 *            The number of shortcuts needed.
+	 */
+	private int contractJunction(int junction, boolean simulate) {
+		int shortcuts = 0;
+		int degree = degrees[junction];
+		int[] around = neighbours[junction];
+		int[] aroundEdges = neighbourEdges[junction];
+		for (int i = 0; i < degree; i++) {
+			int from = around[i];
+			if (contracted[from]) {
+				continue;
+			}
+			int fromLength = edgeLengths[aroundEdges[i]];
+			/* The longest path through the junction that may need a shortcut. */
+			long maxLength = -1;
+			for (int j = i + 1; j < degree; j++) {
+				if (!contracted[around[j]]) {
+					maxLength = Math.max(maxLength, (long) fromLength + edgeLengths[aroundEdges[j]]);
+				}
+			}
+			if (maxLength < 0) {
+				continue;
+			}
+			witnessSearch(from, junction, maxLength, simulate ? ESTIMATE_SETTLE_LIMIT : WITNESS_SETTLE_LIMIT);
+			for (int j = i + 1; j < degree; j++) {
+				int to = around[j];
+				if (contracted[to]) {
+					continue;
+				}
+				long viaLength = (long) fromLength + edgeLengths[aroundEdges[j]];
+				if (witness.getLengthToRoot(to) <= viaLength) {
+					continue;
+				}
+				shortcuts++;
+				if (!simulate) {
+					addEdge(from, to, (int) viaLength, -1, aroundEdges[i], aroundEdges[j], junction);
+				}
+			}
+		}
+		return shortcuts;
+	}
+
+	/**
+	 * Description: Runs a bounded Dijkstra from a neighbour in the remaining
+	 * graph without the junction being contracted.
+	 */
+	private void witnessSearch(int source, int skipped, long maxLength, int settleLimit) {
+		witness.reset();
+		JunctionQueue queue = witness.getQueue();
+		witness.update(source, 0, -1, -1);
+		queue.add(source, 0);
+		int settled = 0;
+		while (!queue.isEmpty() && settled < settleLimit) {
+			int current = queue.poll();
+			double length = queue.getPolledLength();
+			if (length > maxLength) {
+				break;
+			}
+			settled++;
+			for (int i = 0; i < degrees[current]; i++) {
+				int next = neighbours[current][i];
+				if (next == skipped || contracted[next]) {
+					continue;
+				}
+				double newLength = length + edgeLengths[neighbourEdges[current][i]];
+				if (newLength < witness.getLengthToRoot(next)) {
+					witness.update(next, newLength, current, -1);
+					queue.add(next, newLength);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Description: Adds an edge between two junctions, unless a shorter or
+	 * equal one already joins them.
+	 */
+	private void addEdge(int junction1, int junction2, int length, int road, int child1, int child2, int middle) {
+		int existing = findNeighbour(junction1, junction2);
+		if (existing >= 0 && edgeLengths[neighbourEdges[junction1][existing]] <= length) {
+			return;
+		}
+		if (edgeCount == edgeLengths.length) {
+			int capacity = edgeCount * 2;
+			edgeJunction1 = Arrays.copyOf(edgeJunction1, capacity);
+			edgeJunction2 = Arrays.copyOf(edgeJunction2, capacity);
+			edgeLengths = Arrays.copyOf(edgeLengths, capacity);
+			edgeRoads = Arrays.copyOf(edgeRoads, capacity);
+			edgeChild1 = Arrays.copyOf(edgeChild1, capacity);
+			edgeChild2 = Arrays.copyOf(edgeChild2, capacity);
+			edgeMiddles = Arrays.copyOf(edgeMiddles, capacity);
+		}
+		int edge = edgeCount++;
+		edgeJunction1[edge] = junction1;
+		edgeJunction2[edge] = junction2;
+		edgeLengths[edge] = length;
+		edgeRoads[edge] = road;
+		/* Child 1 always touches junction 1 and child 2 junction 2. */
+		edgeChild1[edge] = child1;
+		edgeChild2[edge] = child2;
+		edgeMiddles[edge] = middle;
+		setNeighbour(junction1, junction2, edge);
+		setNeighbour(junction2, junction1, edge);
+	}
+
+	/**
+	 * Description: Gets the index of the neighbour in the list of the
+	 * junction, or -1.
+	 */
+	private int findNeighbour(int junction, int neighbour) {
+		for (int i = 0; i < degrees[junction]; i++) {
+			if (neighbours[junction][i] == neighbour) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Description: Removes the neighbour from the list of the junction.
+	 */
+	private void removeNeighbour(int junction, int neighbour) {
+		int index = findNeighbour(junction, neighbour);
+		if (index >= 0) {
+			int last = --degrees[junction];
+			neighbours[junction][index] = neighbours[junction][last];
+			neighbourEdges[junction][index] = neighbourEdges[junction][last];
+		}
+	}
+
+	/**
+	 * Description: Points the junction to the neighbour through the edge.
+	 */
+	private void setNeighbour(int junction, int neighbour, int edge) {
+		int index = findNeighbour(junction, neighbour);
+		if (index < 0) {
+			index = degrees[junction]++;
+			if (index == neighbours[junction].length) {
+				neighbours[junction] = Arrays.copyOf(neighbours[junction], index * 2);
+				neighbourEdges[junction] = Arrays.copyOf(neighbourEdges[junction], index * 2);
+			}
+			neighbours[junction][index] = neighbour;
+		}
+		neighbourEdges[junction][index] = edge;
+	}
+
+	/**
+	 * Description: Appends the roads of an edge to the path, walking it away
+	 * from the given junction. Shortcuts are unpacked with an explicit stack.
+	 *
+	 * @param edge:
+	 *            The edge to unpack.
+	 * @param from:
+	 *            The junction the edge is walked from.
+	 * @param roads:
+	 *            Receives the roads in walking order.
+	 * @param junctions:
+	 *            Receives the junction reached by each road.
+	 */
+	public void unpack(int edge, int from, IntList roads, IntList junctions) {
+		IntList edges = new IntList();
+		IntList froms = new IntList();
+		edges.add(edge);
+		froms.add(from);
+		while (edges.size() > 0) {
+			int current = edges.removeLast();
+			int start = froms.removeLast();
+			int end = edgeJunction1[current] == start ? edgeJunction2[current] : edgeJunction1[current];
+			if (edgeRoads[current] >= 0) {
+				roads.add(edgeRoads[current]);
+				junctions.add(end);
+			} else {
+				/* Push the second half first so the first half is walked first. */
+				int middle = edgeMiddles[current];
+				int first = edgeJunction1[current] == start ? edgeChild1[current] : edgeChild2[current];
+				int second = edgeJunction1[current] == start ? edgeChild2[current] : edgeChild1[current];
+				edges.add(second);
+				froms.add(middle);
+				edges.add(first);
+				froms.add(start);
+			}
+		}
+	}
+
+	/**
+	 * Description: Writes the hierarchy to a file.
+	 *
+	 * @param fileName:
+	 *            The name of the hierarchy file.
+	 */
+	public void save(String fileName) throws IOException {
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16));
+		try {
+			output.writeInt(MAGIC);
+			output.writeInt(junctionCount);
+			output.writeInt(roadCount);
+			output.writeInt(layoutHash);
+			writeArray(output, upOffsets);
+			writeArray(output, upTargets);
+			writeArray(output, upLengths);
+			writeArray(output, upEdges);
+			writeArray(output, edgeJunction1);
+			writeArray(output, edgeJunction2);
+			writeArray(output, edgeRoads);
+			writeArray(output, edgeChild1);
+			writeArray(output, edgeChild2);
+			writeArray(output, edgeMiddles);
+		} finally {
+			output.close();
+		}
+	}
+
+	/**
+	 * Description: Reads a hierarchy written by {@link #save}.
+	 *
+	 * @param fileName:
+	 *            The name of the hierarchy file.
+	 * @param network:
+	 *            The road network the hierarchy was built from.
+	 *
+	 * @return hierarchy:
+	 *            The contraction hierarchy.
+	 */
+	public static ContractionHierarchy load(String fileName, RoadNetwork network) throws IOException {
+		DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName), 1 << 16));
+		try {
+			if (input.readInt() != MAGIC) {
+				throw new IOException("Not a contraction hierarchy file: " + fileName);
+			}
+			ContractionHierarchy hierarchy = new ContractionHierarchy();
+			hierarchy.junctionCount = input.readInt();
+			hierarchy.roadCount = input.readInt();
+			hierarchy.layoutHash = input.readInt();
+			if (hierarchy.junctionCount != network.getJunctionCount() || hierarchy.roadCount != network.getRoadCount()
+					|| hierarchy.layoutHash != network.getLayoutHash()) {
+				throw new IOException("Contraction hierarchy does not match the road network: " + fileName);
+			}
+			hierarchy.upOffsets = readArray(input);
+			hierarchy.upTargets = readArray(input);
+			hierarchy.upLengths = readArray(input);
+			hierarchy.upEdges = readArray(input);
+			hierarchy.edgeJunction1 = readArray(input);
+			hierarchy.edgeJunction2 = readArray(input);
+			hierarchy.edgeRoads = readArray(input);
+			hierarchy.edgeChild1 = readArray(input);
+			hierarchy.edgeChild2 = readArray(input);
+			hierarchy.edgeMiddles = readArray(input);
+			hierarchy.edgeCount = hierarchy.edgeRoads.length;
+			hierarchy.markUsedRoads(network);
+			return hierarchy;
+		} finally {
+			input.close();
+		}
+	}
+
+	/**
+	 * Description: Marks the roads that edges stand for.
+	 */
+	private void markUsedRoads(RoadNetwork network) {
+		usedRoads = new boolean[roadCount];
+		for (int edge = 0; edge < edgeCount; edge++) {
+			if (edgeRoads[edge] >= 0) {
+				usedRoads[edgeRoads[edge]] = true;
+			}
+		}
+		buildVersion = network.getVersion();
+	}
+
+	@Override
+	public boolean survivesChange(int road, boolean longer) {
+		return longer && !usedRoads[road];
+	}
+
+	/**
+	 * Description: Writes the length of the array and its values.
+	 */
+	private static void writeArray(DataOutputStream output, int[] values) throws IOException {
+		output.writeInt(values.length);
+		for (int value : values) {
+			output.writeInt(value);
+		}
+	}
+
+	/**
+	 * Description: Reads an array written by {@link #writeArray}.
+	 */
+	private static int[] readArray(DataInputStream input) throws IOException {
+		int[] values = new int[input.readInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = input.readInt();
+		}
+		return values;
+	}
+
+	/* Accessors */
+	public int getJunctionCount() {
+		return junctionCount;
+	}
+
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	@Override
+	public int getBuildVersion() {
+		return buildVersion;
+	}
+
+	public int firstUpArc(int junction) {
+		return upOffsets[junction];
+	}
+
+	public int lastUpArc(int junction) {
+		return upOffsets[junction + 1];
+	}
+
+	public int getUpTarget(int arc) {
+		return upTargets[arc];
+	}
+
+	public int getUpLength(int arc) {
+		return upLengths[arc];
+	}
+
+	public int getUpEdge(int arc) {
+		return upEdges[arc];
+	}
+}
@@ -0,0 +1,208 @@
+import java.util.function.IntFunction;
+/**
+ * Class searches the shortest path on a {@link ContractionHierarchy}. Both
+ * searches only climb to more important junctions: one from the two
+ * junctions of the start road, one from the two junctions of the goal road.
+ * The best meeting junction gives the length, and the shortcuts on the way
+ * are unpacked into roads for the output.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class ContractionHierarchySearch implements SearchEngine {
+	/** The road network to search. */
+	private final RoadNetwork network;
+	/** The contraction hierarchy of the network. */
+	private final ContractionHierarchy hierarchy;
+	/** The state of the search from the start lot; the last road holds the hierarchy edge. */
+	private final SearchWorkspace forward;
+	/** The state of the search from the goal lot; the last road holds the hierarchy edge. */
+	private final SearchWorkspace backward;
+	/** The roads of the unpacked path. */
+	private final IntList pathRoads = new IntList();
+	/** The junction reached by each road of the unpacked path. */
+	private final IntList pathJunctions = new IntList();
+	/** The path of the last query. */
+	private final PathBuilder path;
+
+	/** The length of the shortest path found so far. */
+	private double shortestLength;
+	/** The junction where the shortest path found so far meets. */
+	private int meetingJunction;
+
+	/**
+	 * Description: Constructor with three arguments.
+	 *
+	 * @param network:
+	 *            The road network to search.
+	 * @param hierarchy:
+	 *            The contraction hierarchy of the network.
+	 * @param queueType:
+	 *            The name of the priority queue.
+	 */
+	public ContractionHierarchySearch(RoadNetwork network, ContractionHierarchy hierarchy, String queueType) {
+		this(network, hierarchy, SearchWorkspace.workspaces(queueType));
+	}
+
+	/**
+	 * Description: Constructor with three arguments.
+	 *
+	 * @param network:
+	 *            The road network to search.
+	 * @param hierarchy:
+	 *            The contraction hierarchy of the network.
+	 * @param workspaces:
+	 *            Creates the search workspaces from the number of junctions.
+	 */
+	public ContractionHierarchySearch(RoadNetwork network, ContractionHierarchy hierarchy,
+			IntFunction<SearchWorkspace> workspaces) {
+		this.network = network;
+		this.hierarchy = hierarchy;
+		this.forward = workspaces.apply(network.getJunctionCount());
+		this.backward = workspaces.apply(network.getJunctionCount());
+		this.path = new PathBuilder(network);
+	}
+
+	@Override
+	public boolean route(int startLotNumber, int startRoad, int endLotNumber, int endRoad) {
+		shortestLength = Double.MAX_VALUE;
+		meetingJunction = -1;
+		forward.reset();
+		backward.reset();
+		addRoots(forward, backward, startRoad, startLotNumber);
+		addRoots(backward, forward, endRoad, endLotNumber);
+
+		boolean forwardDone = false;
+		boolean backwardDone = false;
+		while (!forwardDone || !backwardDone) {
+			if (!forwardDone) {
+				forwardDone = !settleNext(forward, backward);
+			}
+			if (!backwardDone) {
+				backwardDone = !settleNext(backward, forward);
+			}
+		}
+
+		if (meetingJunction == -1) {
+			return false;
+		}
+		buildPath(startRoad, startLotNumber, endRoad, endLotNumber);
+		return true;
+	}
+
+	/**
+	 * Description: Queues both junctions of a road as roots of one search.
+	 */
+	private void addRoots(SearchWorkspace self, SearchWorkspace other, int road, int lotNumber) {
+		int[] roots = { network.getRoadJunction1(road), network.getRoadJunction2(road) };
+		for (int root : roots) {
+			double length = network.lengthToLot(road, root, lotNumber);
+			if (length < self.getLengthToRoot(root)) {
+				self.update(root, length, -1, -1);
+				self.getQueue().add(root, length);
+				meet(root, length, other);
+			}
+		}
+	}
+
+	/**
+	 * Description: Settles the next junction of one search and relaxes its
+	 * upward edges.
+	 *
+	 * @return running:
+	 *            False once the search cannot improve the shortest path.
+	 */
+	private boolean settleNext(SearchWorkspace self, SearchWorkspace other) {
+		JunctionQueue queue = self.getQueue();
+		while (!queue.isEmpty()) {
+			int currentJunction = queue.poll();
+			double currentLength = self.getLengthToRoot(currentJunction);
+			if (queue.getPolledLength() > currentLength) {
+				continue;
+			}
+			if (currentLength >= shortestLength) {
+				return false;
+			}
+			for (int arc = hierarchy.firstUpArc(currentJunction); arc < hierarchy.lastUpArc(currentJunction); arc++) {
+				int anotherJunction = hierarchy.getUpTarget(arc);
+				double newLength = currentLength + hierarchy.getUpLength(arc);
+				if (newLength >= self.getLengthToRoot(anotherJunction)) {
+					continue;
+				}
+				self.update(anotherJunction, newLength, currentJunction, hierarchy.getUpEdge(arc));
+				queue.add(anotherJunction, newLength);
+				meet(anotherJunction, newLength, other);
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Description: Records the path through the junction if the other search
+	 * has reached it and the path is the shortest so far.
+	 */
+	private void meet(int junction, double length, SearchWorkspace other) {
+		if (other.isReached(junction)) {
+			double total = length + other.getLengthToRoot(junction);
+			if (total < shortestLength) {
+				shortestLength = total;
+				meetingJunction = junction;
+			}
+		}
+	}
+
+	/**
+	 * Description: Unpacks the path through the meeting junction.
+	 */
+	private void buildPath(int startRoad, int startLotNumber, int endRoad, int endLotNumber) {
+		/* Hierarchy edges from the start road up to the meeting junction, in reverse. */
+		IntList edges = new IntList();
+		int junction = meetingJunction;
+		while (forward.getLastJunction(junction) != -1) {
+			edges.add(forward.getLastRoad(junction));
+			junction = forward.getLastJunction(junction);
+		}
+		/* The walk is pathJunctions[0], pathRoads[1], pathJunctions[1], ... */
+		pathRoads.clear();
+		pathJunctions.clear();
+		pathRoads.add(startRoad);
+		pathJunctions.add(junction);
+		for (int i = edges.size() - 1; i >= 0; i--) {
+			hierarchy.unpack(edges.get(i), junction, pathRoads, pathJunctions);
+			junction = pathJunctions.get(pathJunctions.size() - 1);
+		}
+		/* Hierarchy edges from the meeting junction down to the goal road. */
+		while (backward.getLastJunction(junction) != -1) {
+			int next = backward.getLastJunction(junction);
+			hierarchy.unpack(backward.getLastRoad(junction), junction, pathRoads, pathJunctions);
+			junction = next;
+		}
+
+		/*
+		 * Unlike the other searches the hierarchy may cross the start road
+		 * first or the goal road last when that ties with starting or stopping
+		 * at its other junction; those crossings are dropped.
+		 */
+		int first = 0;
+		int last = pathRoads.size() - 1;
+		while (first < last && pathRoads.get(first + 1) == startRoad) {
+			first++;
+		}
+		while (last > first && pathRoads.get(last) == endRoad) {
+			last--;
+		}
+
+		path.begin(startRoad, pathJunctions.get(first));
+		for (int i = first + 1; i <= last; i++) {
+			path.add(pathRoads.get(i), pathJunctions.get(i));
+		}
+		path.finish(startLotNumber, endRoad, endLotNumber);
+	}
+
+	/* Accessors */
+	@Override
+	public PathBuilder getPath() {
+		return path;
+	}
+}
@@ -0,0 +1,66 @@
+/**
+ * Class counts the pushes and pops of another queue into the
+ * {@link SearchStats} of its thread. A pop is stale when the junction was
+ * queued again with a smaller key after this entry, which holds whatever
+ * the keys are (lengths, or lengths plus bounds in A*); the other pops
+ * settle their junction.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class CountingJunctionQueue implements JunctionQueue {
+	/** The queue counted. */
+	private final JunctionQueue queue;
+	/** The key each junction was last queued with. */
+	private final double[] lastKeys;
+	/** The stats counted into. */
+	private final SearchStats stats;
+
+	/**
+	 * Description: Constructor with three arguments.
+	 *
+	 * @param queue:
+	 *            The queue counted.
+	 * @param junctionCount:
+	 *            The number of junctions searched.
+	 * @param stats:
+	 *            The stats counted into.
+	 */
+	public CountingJunctionQueue(JunctionQueue queue, int junctionCount, SearchStats stats) {
+		this.queue = queue;
+		this.lastKeys = new double[junctionCount];
+		this.stats = stats;
+	}
+
+	@Override
+	public void clear() {
+		queue.clear();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return queue.isEmpty();
+	}
+
+	@Override
+	public void add(int junction, double length) {
+		stats.pushes++;
+		lastKeys[junction] = length;
+		queue.add(junction, length);
+	}
+
+	@Override
+	public int poll() {
+		int junction = queue.poll();
+		stats.pops++;
+		if (queue.getPolledLength() > lastKeys[junction]) {
+			stats.stalePops++;
+		}
+		return junction;
+	}
+
+	@Override
+	public double getPolledLength() {
+		return queue.getPolledLength();
+	}
+}
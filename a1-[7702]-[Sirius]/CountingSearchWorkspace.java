@@ -0,0 +1,42 @@
+/**
+ * Class is a {@link SearchWorkspace} that counts its relaxations into the
+ * {@link SearchStats} of its thread: every shorter path recorded to a
+ * junction that is not a root. The relaxations are counted for the graph
+ * the engine of the workspace searches.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class CountingSearchWorkspace extends SearchWorkspace {
+	/** The stats counted into. */
+	private final SearchStats stats;
+	/** The graph searched, {@link SearchStats#ROAD_NETWORK} or {@link SearchStats#HIERARCHY}. */
+	private final int graph;
+
+	/**
+	 * Description: Constructor with four arguments.
+	 *
+	 * @param junctionCount:
+	 *            The number of junctions in the road network.
+	 * @param queue:
+	 *            The empty priority queue of the search.
+	 * @param stats:
+	 *            The stats counted into.
+	 * @param graph:
+	 *            The graph searched, {@link SearchStats#ROAD_NETWORK} or
+	 *            {@link SearchStats#HIERARCHY}.
+	 */
+	public CountingSearchWorkspace(int junctionCount, JunctionQueue queue, SearchStats stats, int graph) {
+		super(junctionCount, queue);
+		this.stats = stats;
+		this.graph = graph;
+	}
+
+	@Override
+	public void update(int junction, double length, int previousJunction, int road) {
+		super.update(junction, length, previousJunction, road);
+		if (previousJunction != -1) {
+			stats.relaxations[graph]++;
+		}
+	}
+}
@@ -0,0 +1,453 @@
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+/**
+ * Class grows a full shortest path tree with delta-stepping on a fork-join
+ * pool. Junctions are kept in buckets of width delta by their length.
+ * The lowest bucket is emptied by relaxing its light arcs (no longer than
+ * delta) in parallel until no junction falls back into it. Then the heavy
+ * arcs of every junction it settled are relaxed at once, and the next
+ * bucket follows. Lengths are lowered with compare-and-set, and a junction
+ * relaxed again after a shorter path turns up is relaxed from the shorter
+ * length. So the lengths end up the same as a sequential search gives.
+ *
+ * The tree is built once the lengths are final, so racing threads never
+ * leave a mixed predecessor: each junction takes the first of its arcs
+ * whose other end plus the arc gives its length. Junctions reached only
+ * over roads of length 0 are attached afterwards, one at a time, each to a
+ * neighbour already in the tree, so such roads cannot close a cycle.
+ *
+ * Usage: java -cp a1-[7702]-[Sirius].jar DeltaStepping environmentFile [maxThreads] [delta] prints a scaling
+ * report over 1 to maxThreads threads against the sequential search.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class DeltaStepping {
+	/** The number of junctions or arcs one task handles before splitting. */
+	private static final int LEAF_SIZE = 512;
+	/** The number of roots the scaling report grows trees from. */
+	private static final int REPORT_ROOTS = 8;
+
+	/** The road network to search. */
+	private final RoadNetwork network;
+	/** The pool running the relaxations. */
+	private final ForkJoinPool pool;
+	/** The bucket width. */
+	private final double delta;
+
+	/* State of the last run. */
+	/** The length of each junction as double bits, infinity if unreached. */
+	private AtomicLongArray lengths;
+	/** The arc from each junction back to the one before it on its path, -1 for a root or if unreached. */
+	private int[] lastArcs;
+	/** The length each junction's light arcs were last relaxed from. */
+	private double[] relaxedLengths;
+	/** The bucket each junction was last settled in, -1 if none. */
+	private long[] settledBuckets;
+
+	/**
+	 * Description: Constructor with three arguments.
+	 *
+	 * @param network:
+	 *            The road network to search.
+	 * @param pool:
+	 *            The pool running the relaxations.
+	 * @param delta:
+	 *            The bucket width, or 0 to choose it from the road lengths.
+	 */
+	public DeltaStepping(RoadNetwork network, ForkJoinPool pool, double delta) {
+		this.network = network;
+		this.pool = pool;
+		this.delta = delta > 0 ? delta : chooseDelta(network);
+	}
+
+	public static void main(String[] args) throws Exception {
+		RoadNetwork network = Assignment.loadNetwork(args[0], new SearchOptions());
+		int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		double delta = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+		int junctionCount = network.getJunctionCount();
+		int[] roots = new int[Math.min(REPORT_ROOTS, junctionCount)];
+		for (int i = 0; i < roots.length; i++) {
+			roots[i] = (int) ((long) i * junctionCount / roots.length);
+		}
+
+		/* The sequential search gives the reference lengths and time. */
+		SearchWorkspace workspace = new SearchWorkspace(junctionCount);
+		double[][] expected = new double[roots.length][junctionCount];
+		long sequential = Long.MAX_VALUE;
+		for (int round = 0; round < 3; round++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < roots.length; i++) {
+				ShortestPathTreeSearch.growTree(network, workspace, roots[i], null);
+				for (int junction = 0; junction < junctionCount; junction++) {
+					expected[i][junction] = workspace.getLengthToRoot(junction);
+				}
+			}
+			sequential = Math.min(sequential, System.nanoTime() - start);
+		}
+		System.out.printf("%d junctions, %d roads, %d trees, %d cores%n", junctionCount, network.getRoadCount(),
+				roots.length, Runtime.getRuntime().availableProcessors());
+		System.out.printf("sequential: %.1f ms%n", sequential / 1e6);
+
+		long single = 0;
+		for (int threads = 1; threads <= maxThreads; threads++) {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			DeltaStepping stepping = new DeltaStepping(network, pool, delta);
+			long best = Long.MAX_VALUE;
+			int mismatches = 0;
+			for (int round = 0; round < 3; round++) {
+				long start = System.nanoTime();
+				for (int i = 0; i < roots.length; i++) {
+					stepping.run(new int[] { roots[i] }, new double[] { 0 });
+					if (round == 0) {
+						for (int junction = 0; junction < junctionCount; junction++) {
+							if (stepping.getLength(junction) != expected[i][junction]) {
+								mismatches++;
+							}
+						}
+					}
+				}
+				best = Math.min(best, System.nanoTime() - start);
+			}
+			pool.shutdown();
+			if (threads == 1) {
+				single = best;
+			}
+			System.out.printf("threads %2d: %8.1f ms, speed-up %.2f over 1 thread, %.2f over sequential,"
+					+ " delta %.1f, %d length mismatches%n", threads, best / 1e6, single / (double) best,
+					sequential / (double) best, stepping.getDelta(), mismatches);
+		}
+	}
+
+	/**
+	 * Description: Chooses the bucket width from the road lengths: the
+	 * average open arc length times two. Light arcs then cover most roads,
+	 * so a bucket spans a couple of roads and has enough junctions to share
+	 * out, while few junctions are relaxed more than once.
+	 *
+	 * @param network:
+	 *            The road network.
+	 *
+	 * @return delta:
+	 *            The bucket width, at least 1.
+	 */
+	public static double chooseDelta(RoadNetwork network) {
+		long total = 0;
+		long count = 0;
+		for (int junction = 0; junction < network.getJunctionCount(); junction++) {
+			for (int arc = network.firstArc(junction); arc < network.lastArc(junction); arc++) {
+				total += network.getArcLength(arc);
+				count++;
+			}
+		}
+		return count == 0 ? 1 : Math.max(1, 2.0 * total / count);
+	}
+
+	/**
+	 * Description: Grows the full shortest path tree from the roots.
+	 *
+	 * @param roots:
+	 *            The root junctions.
+	 * @param rootLengths:
+	 *            The length each root starts with.
+	 */
+	public void run(int[] roots, double[] rootLengths) {
+		int junctionCount = network.getJunctionCount();
+		if (lengths == null || lengths.length() != junctionCount) {
+			lengths = new AtomicLongArray(junctionCount);
+			lastArcs = new int[junctionCount];
+			relaxedLengths = new double[junctionCount];
+			settledBuckets = new long[junctionCount];
+		}
+		final long infinity = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+		pool.invoke(new JunctionTask(0, junctionCount, junction -> {
+			lengths.set(junction, infinity);
+			relaxedLengths[junction] = Double.POSITIVE_INFINITY;
+			settledBuckets[junction] = -1;
+		}));
+
+		TreeMap<Long, IntList> buckets = new TreeMap<Long, IntList>();
+		for (int i = 0; i < roots.length; i++) {
+			if (rootLengths[i] < getLength(roots[i])) {
+				lengths.set(roots[i], Double.doubleToRawLongBits(rootLengths[i]));
+				bucket(buckets, bucketOf(rootLengths[i])).add(roots[i]);
+			}
+		}
+
+		while (!buckets.isEmpty()) {
+			Map.Entry<Long, IntList> lowest = buckets.pollFirstEntry();
+			long index = lowest.getKey();
+			IntList pending = lowest.getValue();
+			IntList settled = new IntList();
+			while (pending.size() > 0) {
+				/* Keeps the junctions still in this bucket whose length dropped since their last relaxation. */
+				IntList frontier = new IntList(pending.size());
+				for (int i = 0; i < pending.size(); i++) {
+					int junction = pending.get(i);
+					double length = getLength(junction);
+					if (bucketOf(length) == index && length < relaxedLengths[junction]) {
+						relaxedLengths[junction] = length;
+						frontier.add(junction);
+						if (settledBuckets[junction] != index) {
+							settledBuckets[junction] = index;
+							settled.add(junction);
+						}
+					}
+				}
+				pending = new IntList();
+				for (int junction : relax(frontier, true)) {
+					long target = bucketOf(getLength(junction));
+					(target == index ? pending : bucket(buckets, target)).add(junction);
+				}
+			}
+			for (int junction : relax(settled, false)) {
+				bucket(buckets, bucketOf(getLength(junction))).add(junction);
+			}
+		}
+
+		buildTree(roots, rootLengths);
+	}
+
+	/**
+	 * Description: Relaxes the light or the heavy arcs of the junctions in
+	 * parallel.
+	 *
+	 * @return improved:
+	 *            The junctions whose length was lowered, maybe repeated.
+	 */
+	private int[] relax(final IntList junctions, final boolean light) {
+		final ConcurrentLinkedQueue<IntList> results = new ConcurrentLinkedQueue<IntList>();
+		pool.invoke(new RecursiveAction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void compute() {
+				relaxRange(junctions, 0, junctions.size(), light, results);
+			}
+		});
+		int size = 0;
+		for (IntList result : results) {
+			size += result.size();
+		}
+		int[] improved = new int[size];
+		int position = 0;
+		for (IntList result : results) {
+			for (int i = 0; i < result.size(); i++) {
+				improved[position++] = result.get(i);
+			}
+		}
+		return improved;
+	}
+
+	/**
+	 * Description: Relaxes a range of the junctions, splitting it into
+	 * forked halves while it is large.
+	 */
+	private void relaxRange(IntList junctions, int from, int to, boolean light,
+			ConcurrentLinkedQueue<IntList> results) {
+		if (to - from > LEAF_SIZE) {
+			final int middle = (from + to) >>> 1;
+			RecursiveAction left = new RecursiveAction() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void compute() {
+					relaxRange(junctions, from, middle, light, results);
+				}
+			};
+			left.fork();
+			relaxRange(junctions, middle, to, light, results);
+			left.join();
+			return;
+		}
+		IntList improved = new IntList();
+		for (int i = from; i < to; i++) {
+			int junction = junctions.get(i);
+			double length = getLength(junction);
+			for (int arc = network.firstArc(junction); arc < network.lastArc(junction); arc++) {
+				int arcLength = network.getArcLength(arc);
+				if ((arcLength <= delta) != light) {
+					continue;
+				}
+				int next = network.getArcTarget(arc);
+				if (lower(next, length + arcLength)) {
+					improved.add(next);
+				}
+			}
+		}
+		if (improved.size() > 0) {
+			results.add(improved);
+		}
+	}
+
+	/**
+	 * Description: Lowers the length of a junction if the new length is
+	 * shorter. Non-negative doubles order the same as their bits.
+	 *
+	 * @return lowered:
+	 *            True if this call lowered it.
+	 */
+	private boolean lower(int junction, double length) {
+		long bits = Double.doubleToRawLongBits(length);
+		while (true) {
+			long current = lengths.get(junction);
+			if (bits >= current) {
+				return false;
+			}
+			if (lengths.compareAndSet(junction, current, bits)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Description: Picks the last arc of every path from the final lengths.
+	 * The choice only depends on the lengths and the arc order, never on how
+	 * the threads ran.
+	 */
+	private void buildTree(int[] roots, double[] rootLengths) {
+		final int unresolved = -2;
+		pool.invoke(new JunctionTask(0, network.getJunctionCount(), junction -> {
+			double length = getLength(junction);
+			lastArcs[junction] = length == Double.POSITIVE_INFINITY ? -1 : unresolved;
+			for (int arc = network.firstArc(junction); arc < network.lastArc(junction); arc++) {
+				int arcLength = network.getArcLength(arc);
+				if (arcLength > 0 && getLength(network.getArcTarget(arc)) + arcLength == length) {
+					lastArcs[junction] = arc;
+					return;
+				}
+			}
+		}));
+		for (int i = 0; i < roots.length; i++) {
+			if (lastArcs[roots[i]] == unresolved && getLength(roots[i]) == rootLengths[i]) {
+				lastArcs[roots[i]] = -1;
+			}
+		}
+
+		/* The rest hang off a neighbour at the same length over a road of length 0. */
+		IntList queue = new IntList();
+		for (int junction = 0; junction < network.getJunctionCount(); junction++) {
+			if (lastArcs[junction] == unresolved && attach(junction, unresolved)) {
+				queue.add(junction);
+			}
+		}
+		while (queue.size() > 0) {
+			int junction = queue.removeLast();
+			for (int arc = network.firstArc(junction); arc < network.lastArc(junction); arc++) {
+				int next = network.getArcTarget(arc);
+				if (lastArcs[next] == unresolved && attach(next, unresolved)) {
+					queue.add(next);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Description: Gives an unresolved junction the first arc of length 0 to
+	 * a neighbour already in the tree at the same length.
+	 *
+	 * @return attached:
+	 *            True if such an arc was found.
+	 */
+	private boolean attach(int junction, int unresolved) {
+		for (int arc = network.firstArc(junction); arc < network.lastArc(junction); arc++) {
+			int previous = network.getArcTarget(arc);
+			if (network.getArcLength(arc) == 0 && lastArcs[previous] != unresolved
+					&& getLength(previous) == getLength(junction)) {
+				lastArcs[junction] = arc;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Description: Gets the bucket of a length.
+	 */
+	private long bucketOf(double length) {
+		return (long) (length / delta);
+	}
+
+	/**
+	 * Description: Gets a bucket, adding it if it is missing.
+	 */
+	private static IntList bucket(TreeMap<Long, IntList> buckets, long index) {
+		IntList bucket = buckets.get(index);
+		if (bucket == null) {
+			bucket = new IntList();
+			buckets.put(index, bucket);
+		}
+		return bucket;
+	}
+
+	/**
+	 * Description: Copies the tree of the last run into a search state, for
+	 * {@link PathBuilder#walkBack}.
+	 *
+	 * @param tree:
+	 *            The search state to fill.
+	 */
+	public void copyTo(SearchWorkspace tree) {
+		tree.reset();
+		for (int junction = 0; junction < network.getJunctionCount(); junction++) {
+			double length = getLength(junction);
+			if (length != Double.POSITIVE_INFINITY) {
+				int arc = lastArcs[junction];
+				tree.update(junction, length, arc == -1 ? -1 : network.getArcTarget(arc),
+						arc == -1 ? -1 : network.getArcRoad(arc));
+			}
+		}
+	}
+
+	/* Accessors */
+	public double getLength(int junction) {
+		return Double.longBitsToDouble(lengths.get(junction));
+	}
+
+	public double getDelta() {
+		return delta;
+	}
+
+	/**
+	 * Interface of the work done for one junction by a {@link JunctionTask}.
+	 */
+	private interface JunctionWork {
+		void run(int junction);
+	}
+
+	/**
+	 * Class runs work for a range of junctions, splitting it into forked
+	 * halves while it is large.
+	 */
+	private static class JunctionTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		/** The first junction of the range. */
+		private final int from;
+		/** The end of the range. */
+		private final int to;
+		/** The work done for each junction. */
+		private final JunctionWork work;
+
+		JunctionTask(int from, int to, JunctionWork work) {
+			this.from = from;
+			this.to = to;
+			this.work = work;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > LEAF_SIZE * 8) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new JunctionTask(from, middle, work), new JunctionTask(middle, to, work));
+				return;
+			}
+			for (int junction = from; junction < to; junction++) {
+				work.run(junction);
+			}
+		}
+	}
+}
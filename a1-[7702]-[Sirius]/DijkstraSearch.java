@@ -0,0 +1,120 @@
+import java.util.function.IntFunction;
+/**
+ * Class searches the shortest path with Dijkstra's algorithm from both
+ * junctions of the start road until the goal road is reached.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class DijkstraSearch implements SearchEngine {
+	/** The road network to search. */
+	private final RoadNetwork network;
+	/** The search state. */
+	private final SearchWorkspace workspace;
+	/** The path of the last query. */
+	private final PathBuilder path;
+	/** The number of junctions settled by the last query. */
+	private int settledCount;
+
+	/**
+	 * Description: Constructor with two arguments.
+	 *
+	 * @param network:
+	 *            The road network to search.
+	 * @param queueType:
+	 *            The name of the priority queue.
+	 */
+	public DijkstraSearch(RoadNetwork network, String queueType) {
+		this(network, SearchWorkspace.workspaces(queueType));
+	}
+
+	/**
+	 * Description: Constructor with two arguments.
+	 *
+	 * @param network:
+	 *            The road network to search.
+	 * @param workspaces:
+	 *            Creates the search workspaces from the number of junctions.
+	 */
+	public DijkstraSearch(RoadNetwork network, IntFunction<SearchWorkspace> workspaces) {
+		this.network = network;
+		this.workspace = workspaces.apply(network.getJunctionCount());
+		this.path = new PathBuilder(network);
+	}
+
+	@Override
+	public boolean route(int startLotNumber, int startRoad, int endLotNumber, int endRoad) {
+		workspace.reset();
+		settledCount = 0;
+		JunctionQueue priorityQueue = workspace.getQueue();
+		
+		/* Stores the length of the shortest path from start to the goal. */
+		double shortestLength = Double.MAX_VALUE;
+		/* The last junction to the goal in the shortest path. */
+		int endJunction = -1;
+
+		/* Both junctions of the start road are roots. */
+		int[] roots = { network.getRoadJunction1(startRoad), network.getRoadJunction2(startRoad) };
+		for (int root : roots) {
+			double length = network.lengthToLot(startRoad, root, startLotNumber);
+			if (length < workspace.getLengthToRoot(root)) {
+				workspace.update(root, length, -1, startRoad);
+				priorityQueue.add(root, length);
+			}
+		}
+
+		while (!priorityQueue.isEmpty()) {
+			int currentJunction = priorityQueue.poll();
+			/* Skip entries superseded by a shorter path. */
+			double currentLength = workspace.getLengthToRoot(currentJunction);
+			if (priorityQueue.getPolledLength() > currentLength) {
+				continue;
+			}
+			/* Every junction left in the queue is further than the goal. */
+			if (currentLength >= shortestLength) {
+				break;
+			}
+			settledCount++;
+			/* Gets all road accessible from the current junction. */
+			for (int arc = network.firstArc(currentJunction); arc < network.lastArc(currentJunction); arc++) {
+				int road = network.getArcRoad(arc);
+				if (road != endRoad) {
+					/* Get another junction of the road. */
+					int anotherJunction = network.getArcTarget(arc);
+					/* The estimated length to root of the another junction. */
+					double newLength = currentLength + network.getArcLength(arc);
+					/* Check which path to the another junction is the shortest one. */
+					if (newLength >= workspace.getLengthToRoot(anotherJunction)) {
+						continue;
+					}
+					workspace.update(anotherJunction, newLength, currentJunction, road);
+					priorityQueue.add(anotherJunction, newLength);
+				} else {
+					double length = currentLength + network.lengthToLot(road, currentJunction, endLotNumber);
+					if (shortestLength > length) {
+						endJunction = currentJunction;
+						shortestLength = length;
+					}
+				}
+			}
+		}
+
+		/* Check whether the path is found. */
+		if (endJunction == -1) {
+			return false;
+		}
+		path.walkBack(workspace, endJunction, startRoad);
+		path.finish(startLotNumber, endRoad, endLotNumber);
+		return true;
+	}
+
+	/* Accessors */
+	@Override
+	public PathBuilder getPath() {
+		return path;
+	}
+
+	public int getSettledCount() {
+		return settledCount;
+	}
+}
@@ -0,0 +1,345 @@
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+ * Class computes the lengths of the shortest paths from many source lots to
+ * many target lots on a {@link ContractionHierarchy} with buckets. A search
+ * climbing the hierarchy from each target leaves the length it reached
+ * each junction with in that junction's bucket. A climbing search from
+ * each source then scans the bucket of every junction it reaches, and the
+ * best sum for each target is its length. This takes one short search per
+ * lot instead of one per pair.
+ *
+ * Like the other engines, a lot is reached from both junctions of its road
+ * with the lot offsets as the first lengths. Lots on the same road use the
+ * length along the road, and a closed road reaches nothing.
+ *
+ * Usage: java -cp a1-[7702]-[Sirius].jar DistanceMatrix environmentFile sourceFile targetFile outputFile [options]
+ *
+ * The lot files hold one lot per line, written like a query field, e.g.
+ * "6Rdf". The output is CSV if its name ends in ".csv", otherwise binary.
+ * The options are those of {@link Assignment}; -ch and -threads are used.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class DistanceMatrix {
+	/** The first int of a binary matrix file. */
+	private static final int MAGIC = 0x444d3031;
+
+	/** The road network. */
+	private final RoadNetwork network;
+	/** The contraction hierarchy of the network. */
+	private final ContractionHierarchy hierarchy;
+	/** The number of threads running the searches. */
+	private final int threads;
+
+	/**
+	 * Description: Constructor with three arguments.
+	 *
+	 * @param network:
+	 *            The road network.
+	 * @param hierarchy:
+	 *            The contraction hierarchy of the network.
+	 * @param threads:
+	 *            The number of threads running the searches.
+	 */
+	public DistanceMatrix(RoadNetwork network, ContractionHierarchy hierarchy, int threads) {
+		this.network = network;
+		this.hierarchy = hierarchy;
+		this.threads = Math.max(1, threads);
+	}
+
+	public static void main(String[] args) throws Exception {
+		SearchOptions options = SearchOptions.parse(args, 4);
+		RoadNetwork network = Assignment.loadNetwork(args[0], options);
+		ContractionHierarchy hierarchy = options.getHierarchyFile() == null ? ContractionHierarchy.build(network)
+				: ContractionHierarchy.load(options.getHierarchyFile(), network);
+		int[] sources = readLots(args[1], network);
+		int[] targets = readLots(args[2], network);
+		long start = System.nanoTime();
+		double[] lengths = new DistanceMatrix(network, hierarchy, options.getThreads()).compute(sources, targets);
+		System.out.printf("Computed %d x %d lengths in %.1f ms%n", sources.length / 2, targets.length / 2,
+				(System.nanoTime() - start) / 1e6);
+		if (args[3].endsWith(".csv")) {
+			writeCsv(args[3], network, sources, targets, lengths);
+		} else {
+			writeBinary(args[3], sources.length / 2, targets.length / 2, lengths);
+		}
+	}
+
+	/**
+	 * Description: Computes the lengths between every source and target lot.
+	 *
+	 * @param sources:
+	 *            The source lots as road id and lot number pairs.
+	 * @param targets:
+	 *            The target lots as road id and lot number pairs.
+	 *
+	 * @return lengths:
+	 *            The length from source i to target j at [i * targetCount +
+	 *            j], infinity if no path joins them.
+	 */
+	public double[] compute(final int[] sources, final int[] targets)
+			throws InterruptedException, ExecutionException {
+		if (!hierarchy.survivesChanges(network, hierarchy.getBuildVersion())) {
+			throw new IllegalStateException("The contraction hierarchy is out of date after road changes");
+		}
+		final int sourceCount = sources.length / 2;
+		final int targetCount = targets.length / 2;
+		final double[] lengths = new double[sourceCount * targetCount];
+		Arrays.fill(lengths, Double.POSITIVE_INFINITY);
+
+		/* Climbs from every target, keeping the junctions reached and their lengths. */
+		final int[][] reachedJunctions = new int[targetCount][];
+		final double[][] reachedLengths = new double[targetCount][];
+		runParallel(targetCount, (workspace, settled, target) -> {
+			int count = climb(workspace, settled, targets[target * 2], targets[target * 2 + 1]);
+			reachedJunctions[target] = Arrays.copyOf(settled, count);
+			reachedLengths[target] = new double[count];
+			for (int i = 0; i < count; i++) {
+				reachedLengths[target][i] = workspace.getLengthToRoot(settled[i]);
+			}
+		});
+
+		/* Sorts the bucket entries by junction. */
+		int junctionCount = network.getJunctionCount();
+		final int[] bucketOffsets = new int[junctionCount + 1];
+		for (int target = 0; target < targetCount; target++) {
+			for (int junction : reachedJunctions[target]) {
+				bucketOffsets[junction + 1]++;
+			}
+		}
+		for (int junction = 0; junction < junctionCount; junction++) {
+			bucketOffsets[junction + 1] += bucketOffsets[junction];
+		}
+		final int[] bucketTargets = new int[bucketOffsets[junctionCount]];
+		final double[] bucketLengths = new double[bucketOffsets[junctionCount]];
+		int[] next = Arrays.copyOf(bucketOffsets, junctionCount);
+		for (int target = 0; target < targetCount; target++) {
+			for (int i = 0; i < reachedJunctions[target].length; i++) {
+				int entry = next[reachedJunctions[target][i]]++;
+				bucketTargets[entry] = target;
+				bucketLengths[entry] = reachedLengths[target][i];
+			}
+		}
+
+		/* Climbs from every source, scanning the buckets on the way. */
+		runParallel(sourceCount, (workspace, settled, source) -> {
+			int count = climb(workspace, settled, sources[source * 2], sources[source * 2 + 1]);
+			int row = source * targetCount;
+			for (int i = 0; i < count; i++) {
+				int junction = settled[i];
+				double length = workspace.getLengthToRoot(junction);
+				for (int entry = bucketOffsets[junction]; entry < bucketOffsets[junction + 1]; entry++) {
+					double total = length + bucketLengths[entry];
+					if (total < lengths[row + bucketTargets[entry]]) {
+						lengths[row + bucketTargets[entry]] = total;
+					}
+				}
+			}
+			/* A closed road climbs nowhere, so only lots sharing an open road are left. */
+			int sourceRoad = sources[source * 2];
+			for (int target = 0; target < targetCount; target++) {
+				if (targets[target * 2] == sourceRoad && !network.isRoadClosed(sourceRoad)) {
+					lengths[row + target] = network.lengthBetweenLots(sourceRoad, sources[source * 2 + 1],
+							targets[target * 2 + 1]);
+				}
+			}
+		});
+		return lengths;
+	}
+
+	/**
+	 * Description: Runs a task for every lot, spread over the threads. Each
+	 * thread has its own search state and array of settled junctions.
+	 */
+	private void runParallel(int lotCount, final LotTask task) throws InterruptedException, ExecutionException {
+		final AtomicInteger nextLot = new AtomicInteger();
+		final int junctionCount = network.getJunctionCount();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(pool.submit(() -> {
+					SearchWorkspace workspace = new SearchWorkspace(junctionCount);
+					int[] settled = new int[junctionCount];
+					for (int lot = nextLot.getAndIncrement(); lot < lotCount; lot = nextLot.getAndIncrement()) {
+						task.run(workspace, settled, lot);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Description: Settles every junction the hierarchy climbs to from both
+	 * junctions of the lot's road.
+	 *
+	 * @return count:
+	 *            The number of junctions settled, kept in order in settled.
+	 */
+	private int climb(SearchWorkspace workspace, int[] settled, int road, int lotNumber) {
+		workspace.reset();
+		if (network.isRoadClosed(road)) {
+			return 0;
+		}
+		JunctionQueue queue = workspace.getQueue();
+		int[] roots = { network.getRoadJunction1(road), network.getRoadJunction2(road) };
+		for (int root : roots) {
+			double length = network.lengthToLot(road, root, lotNumber);
+			if (length < workspace.getLengthToRoot(root)) {
+				workspace.update(root, length, -1, -1);
+				queue.add(root, length);
+			}
+		}
+		int count = 0;
+		while (!queue.isEmpty()) {
+			int current = queue.poll();
+			double currentLength = workspace.getLengthToRoot(current);
+			if (queue.getPolledLength() > currentLength) {
+				continue;
+			}
+			settled[count++] = current;
+			for (int arc = hierarchy.firstUpArc(current); arc < hierarchy.lastUpArc(current); arc++) {
+				int next = hierarchy.getUpTarget(arc);
+				double newLength = currentLength + hierarchy.getUpLength(arc);
+				if (newLength < workspace.getLengthToRoot(next)) {
+					workspace.update(next, newLength, current, -1);
+					queue.add(next, newLength);
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Description: Reads a lot file: one lot per line, the lot number
+	 * followed by the road name. Blank lines are skipped.
+	 *
+	 * @param fileName:
+	 *            The name of the lot file.
+	 * @param network:
+	 *            The road network used to resolve road names.
+	 *
+	 * @return lots:
+	 *            The lots as road id and lot number pairs.
+	 */
+	public static int[] readLots(String fileName, RoadNetwork network) throws IOException {
+		IntList lots = new IntList();
+		try (BufferedReader input = new BufferedReader(new FileReader(fileName))) {
+			String line;
+			while ((line = input.readLine()) != null) {
+				line = line.trim();
+				if (line.isEmpty()) {
+					continue;
+				}
+				int digits = 0;
+				while (digits < line.length() && digits < 9 && Character.isDigit(line.charAt(digits))) {
+					digits++;
+				}
+				int road = network.getRoadId(line.substring(digits));
+				int lotNumber = digits == 0 ? 0 : Integer.parseInt(line.substring(0, digits));
+				if (road < 0 || lotNumber < 1 || lotNumber > network.getRoadLots(road)) {
+					throw new IllegalArgumentException("Invalid lot in " + fileName + ": " + line);
+				}
+				lots.add(road);
+				lots.add(lotNumber);
+			}
+		}
+		return lots.toArray();
+	}
+
+	/**
+	 * Description: Writes the matrix as CSV: a header row of the target
+	 * lots, then a row per source lot starting with its name. An empty cell
+	 * means no path.
+	 *
+	 * @param fileName:
+	 *            The name of the output file.
+	 * @param network:
+	 *            The road network naming the roads.
+	 * @param sources:
+	 *            The source lots as road id and lot number pairs.
+	 * @param targets:
+	 *            The target lots as road id and lot number pairs.
+	 * @param lengths:
+	 *            The lengths computed by {@link #compute}.
+	 */
+	public static void writeCsv(String fileName, RoadNetwork network, int[] sources, int[] targets, double[] lengths)
+			throws IOException {
+		int targetCount = targets.length / 2;
+		try (BufferedWriter output = new BufferedWriter(new FileWriter(fileName), 1 << 16)) {
+			output.write("lot");
+			for (int target = 0; target < targetCount; target++) {
+				output.write(',');
+				output.write(targets[target * 2 + 1] + network.getRoadName(targets[target * 2]));
+			}
+			output.write('\n');
+			for (int source = 0; source < sources.length / 2; source++) {
+				output.write(sources[source * 2 + 1] + network.getRoadName(sources[source * 2]));
+				for (int target = 0; target < targetCount; target++) {
+					output.write(',');
+					double length = lengths[source * targetCount + target];
+					if (length != Double.POSITIVE_INFINITY) {
+						output.write(Double.toString(length));
+					}
+				}
+				output.write('\n');
+			}
+		}
+	}
+
+	/**
+	 * Description: Writes the matrix in binary: the magic number, the
+	 * number of rows and columns, then every length as a double in row
+	 * order, infinity meaning no path.
+	 *
+	 * @param fileName:
+	 *            The name of the output file.
+	 * @param sourceCount:
+	 *            The number of rows.
+	 * @param targetCount:
+	 *            The number of columns.
+	 * @param lengths:
+	 *            The lengths computed by {@link #compute}.
+	 */
+	public static void writeBinary(String fileName, int sourceCount, int targetCount, double[] lengths)
+			throws IOException {
+		try (DataOutputStream output = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16))) {
+			output.writeInt(MAGIC);
+			output.writeInt(sourceCount);
+			output.writeInt(targetCount);
+			for (double length : lengths) {
+				output.writeDouble(length);
+			}
+		}
+	}
+
+	/**
+	 * Interface of the work done for one lot by {@link #runParallel}.
+	 */
+	private interface LotTask {
+		void run(SearchWorkspace workspace, int[] settled, int lot);
+	}
+}
@@ -0,0 +1,295 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+ * Class holds the length of the shortest path between every two junctions
+ * and the first road of that path, in a file read through read-only
+ * mappings. Row t of the file holds, for every junction j, the length from
+ * j to t and the road leading from j towards t, both as ints; -1 marks
+ * junctions no path joins. Road lengths are ints, so the lengths are
+ * exact.
+ *
+ * The table takes 8 bytes per pair of junctions and is built offline with
+ * one full search per junction, spread over threads. The build refuses to
+ * start when the file would exceed the size budget. A road no stored path
+ * uses can be made longer or closed without changing any entry; the build
+ * marks the used roads in one byte per road after the rows, so a road
+ * change never has to scan the table.
+ *
+ * Usage: java -cp a1-[7702]-[Sirius].jar DistanceTable environmentFile tableFile [budgetMB] [threads]
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class DistanceTable implements Preprocessing {
+	/** The default size budget of the table file in MB. */
+	public static final long DEFAULT_BUDGET_MB = 1024;
+	/** The first int of a table file. */
+	private static final int MAGIC = 0x44543033;
+	/** The size of the header in bytes. */
+	private static final int HEADER_SIZE = 16;
+	/** The largest size of one mapping in bytes. */
+	private static final long SEGMENT_SIZE = 1 << 30;
+
+	/** The number of junctions of the network. */
+	private final int junctionCount;
+	/** The number of roads of the network. */
+	private final int roadCount;
+	/** The number of rows in each mapping. */
+	private final int rowsPerSegment;
+	/** The mappings of the rows. */
+	private final MappedByteBuffer[] segments;
+	/** The version of the network when the table was loaded. */
+	private final int buildVersion;
+	/** Whether a stored path uses each road. */
+	private final boolean[] usedRoads;
+
+	/**
+	 * Description: Constructor with five arguments.
+	 */
+	private DistanceTable(int junctionCount, int roadCount, MappedByteBuffer[] segments, boolean[] usedRoads,
+			int buildVersion) {
+		this.junctionCount = junctionCount;
+		this.roadCount = roadCount;
+		this.rowsPerSegment = rowsPerSegment(junctionCount);
+		this.segments = segments;
+		this.usedRoads = usedRoads;
+		this.buildVersion = buildVersion;
+	}
+
+	public static void main(String[] args) throws Exception {
+		RoadNetwork network = Assignment.loadNetwork(args[0], new SearchOptions());
+		long budget = (args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_BUDGET_MB) << 20;
+		int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+		long size = estimateSize(network.getJunctionCount(), network.getRoadCount());
+		System.out.printf("%d junctions need a table of %.1f MB%n", network.getJunctionCount(), size / 1048576.0);
+		long start = System.nanoTime();
+		build(network, args[1], budget, threads);
+		System.out.printf("Built in %.1f s%n", (System.nanoTime() - start) / 1e9);
+	}
+
+	/**
+	 * Description: Gets the size of the table file for a network.
+	 *
+	 * @param junctionCount:
+	 *            The number of junctions of the network.
+	 * @param roadCount:
+	 *            The number of roads of the network.
+	 *
+	 * @return size:
+	 *            The size in bytes.
+	 */
+	public static long estimateSize(int junctionCount, int roadCount) {
+		return rowPosition(junctionCount, junctionCount) + roadCount;
+	}
+
+	/**
+	 * Description: Builds the table of the network into a file.
+	 *
+	 * @param network:
+	 *            The road network.
+	 * @param fileName:
+	 *            The name of the table file.
+	 * @param budget:
+	 *            The largest size of the file in bytes.
+	 * @param threads:
+	 *            The number of threads running the searches.
+	 */
+	public static void build(final RoadNetwork network, String fileName, long budget, int threads)
+			throws IOException, InterruptedException, ExecutionException {
+		final int junctionCount = network.getJunctionCount();
+		long size = estimateSize(junctionCount, network.getRoadCount());
+		if (size > budget) {
+			throw new IllegalArgumentException(String.format("Distance table of %.1f MB exceeds the budget of %.1f MB",
+					size / 1048576.0, budget / 1048576.0));
+		}
+		try (final FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC).putInt(junctionCount).putInt(network.getRoadCount())
+					.putInt(network.getLayoutHash()).flip();
+			channel.write(header, 0);
+
+			final AtomicInteger nextRow = new AtomicInteger();
+			/* Only ever set to true, and read after every worker is done. */
+			final boolean[] used = new boolean[network.getRoadCount()];
+			ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+			try {
+				List<Future<?>> futures = new ArrayList<Future<?>>();
+				for (int i = 0; i < Math.max(1, threads); i++) {
+					futures.add(pool.submit(() -> {
+						SearchWorkspace workspace = new SearchWorkspace(junctionCount);
+						ByteBuffer row = ByteBuffer.allocateDirect(8 * junctionCount);
+						for (int target = nextRow.getAndIncrement(); target < junctionCount; target = nextRow
+								.getAndIncrement()) {
+							fillRow(network, workspace, target, row, used);
+							long position = rowPosition(junctionCount, target);
+							while (row.hasRemaining()) {
+								position += channel.write(row, position);
+							}
+						}
+						return null;
+					}));
+				}
+				for (Future<?> future : futures) {
+					future.get();
+				}
+			} finally {
+				pool.shutdown();
+			}
+			ByteBuffer flags = ByteBuffer.allocate(used.length);
+			for (boolean roadUsed : used) {
+				flags.put((byte) (roadUsed ? 1 : 0));
+			}
+			flags.flip();
+			long position = rowPosition(junctionCount, junctionCount);
+			while (flags.hasRemaining()) {
+				position += channel.write(flags, position);
+			}
+		}
+	}
+
+	/**
+	 * Description: Searches from the target junction over all roads and
+	 * writes its row: the lengths, then the roads towards the target, which
+	 * are marked used.
+	 */
+	private static void fillRow(RoadNetwork network, SearchWorkspace workspace, int target, ByteBuffer row,
+			boolean[] used) {
+		ShortestPathTreeSearch.growTree(network, workspace, target, null);
+		int junctionCount = network.getJunctionCount();
+		row.clear();
+		for (int junction = 0; junction < junctionCount; junction++) {
+			double length = workspace.getLengthToRoot(junction);
+			if (length > Integer.MAX_VALUE && length != Double.POSITIVE_INFINITY) {
+				throw new IllegalStateException("Path length does not fit the table: " + length);
+			}
+			row.putInt(length == Double.POSITIVE_INFINITY ? -1 : (int) length);
+		}
+		for (int junction = 0; junction < junctionCount; junction++) {
+			/* The tree from the target leads from each junction back towards it. */
+			int road = workspace.isReached(junction) ? workspace.getLastRoad(junction) : -1;
+			if (road >= 0) {
+				used[road] = true;
+			}
+			row.putInt(road);
+		}
+		row.flip();
+	}
+
+	/**
+	 * Description: Maps a table file read-only.
+	 *
+	 * @param fileName:
+	 *            The name of the table file.
+	 * @param network:
+	 *            The road network the table was built from.
+	 *
+	 * @return table:
+	 *            The distance table.
+	 */
+	public static DistanceTable load(String fileName, RoadNetwork network) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			channel.read(header, 0);
+			header.flip();
+			if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+				throw new IOException("Not a distance table file: " + fileName);
+			}
+			int junctionCount = header.getInt();
+			int roadCount = header.getInt();
+			int layoutHash = header.getInt();
+			if (junctionCount != network.getJunctionCount() || roadCount != network.getRoadCount()
+					|| layoutHash != network.getLayoutHash()
+					|| channel.size() != estimateSize(junctionCount, roadCount)) {
+				throw new IOException("Distance table does not match the road network: " + fileName);
+			}
+			int rowsPerSegment = rowsPerSegment(junctionCount);
+			int segmentCount = junctionCount == 0 ? 0 : (junctionCount - 1) / rowsPerSegment + 1;
+			MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+			for (int i = 0; i < segmentCount; i++) {
+				int rows = Math.min(rowsPerSegment, junctionCount - i * rowsPerSegment);
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, rowPosition(junctionCount, i * rowsPerSegment),
+						8L * junctionCount * rows);
+			}
+			ByteBuffer flags = ByteBuffer.allocate(roadCount);
+			long position = rowPosition(junctionCount, junctionCount);
+			while (flags.hasRemaining()) {
+				position += channel.read(flags, position);
+			}
+			boolean[] usedRoads = new boolean[roadCount];
+			for (int road = 0; road < roadCount; road++) {
+				usedRoads[road] = flags.get(road) != 0;
+			}
+			return new DistanceTable(junctionCount, roadCount, segments, usedRoads, network.getVersion());
+		}
+	}
+
+	@Override
+	public boolean survivesChange(int road, boolean longer) {
+		return longer && !usedRoads[road];
+	}
+
+	/**
+	 * Description: Gets the number of whole rows that fit one mapping.
+	 */
+	private static int rowsPerSegment(int junctionCount) {
+		return (int) Math.max(1, SEGMENT_SIZE / (8L * Math.max(1, junctionCount)));
+	}
+
+	/**
+	 * Description: Gets the position of a row in the file.
+	 */
+	private static long rowPosition(int junctionCount, int row) {
+		return HEADER_SIZE + 8L * junctionCount * row;
+	}
+
+	/**
+	 * Description: Gets the length of the shortest path between two
+	 * junctions.
+	 *
+	 * @param from:
+	 *            The id of one junction.
+	 * @param to:
+	 *            The id of the other junction.
+	 *
+	 * @return length:
+	 *            The length, or -1 if no path joins them.
+	 */
+	public int getLength(int from, int to) {
+		return segments[to / rowsPerSegment].getInt(8 * (to % rowsPerSegment) * junctionCount + 4 * from);
+	}
+
+	/**
+	 * Description: Gets the first road of the shortest path between two
+	 * junctions.
+	 *
+	 * @param from:
+	 *            The id of the junction the path starts at.
+	 * @param to:
+	 *            The id of the junction the path ends at.
+	 *
+	 * @return road:
+	 *            The id of the road, or -1 if the junctions are the same or
+	 *            no path joins them.
+	 */
+	public int getNextRoad(int from, int to) {
+		return segments[to / rowsPerSegment].getInt(8 * (to % rowsPerSegment) * junctionCount + 4 * (junctionCount + from));
+	}
+
+	/* Accessors */
+	@Override
+	public int getBuildVersion() {
+		return buildVersion;
+	}
+}
@@ -0,0 +1,76 @@
+/**
+ * Class answers queries from a {@link DistanceTable} without any search:
+ * the four table lengths between the junctions of the start and goal roads
+ * plus the lot offsets give the shortest path, and its roads are read one
+ * by one from the table.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class DistanceTableSearch implements SearchEngine {
+	/** The road network to search. */
+	private final RoadNetwork network;
+	/** The distance table of the network. */
+	private final DistanceTable table;
+	/** The path of the last query. */
+	private final PathBuilder path;
+
+	/**
+	 * Description: Constructor with two arguments.
+	 *
+	 * @param network:
+	 *            The road network to search.
+	 * @param table:
+	 *            The distance table of the network.
+	 */
+	public DistanceTableSearch(RoadNetwork network, DistanceTable table) {
+		this.network = network;
+		this.table = table;
+		this.path = new PathBuilder(network);
+	}
+
+	@Override
+	public boolean route(int startLotNumber, int startRoad, int endLotNumber, int endRoad) {
+		int[] roots = { network.getRoadJunction1(startRoad), network.getRoadJunction2(startRoad) };
+		int[] goals = { network.getRoadJunction1(endRoad), network.getRoadJunction2(endRoad) };
+
+		/* Picks the shortest of the four root and goal junction pairs. */
+		double shortestLength = Double.MAX_VALUE;
+		int bestRoot = -1;
+		int bestGoal = -1;
+		for (int root : roots) {
+			for (int goal : goals) {
+				int length = table.getLength(root, goal);
+				if (length < 0) {
+					continue;
+				}
+				double total = network.lengthToLot(startRoad, root, startLotNumber) + length
+						+ network.lengthToLot(endRoad, goal, endLotNumber);
+				if (total < shortestLength) {
+					shortestLength = total;
+					bestRoot = root;
+					bestGoal = goal;
+				}
+			}
+		}
+		if (bestRoot == -1) {
+			return false;
+		}
+
+		path.begin(startRoad, bestRoot);
+		for (int junction = bestRoot; junction != bestGoal;) {
+			int road = table.getNextRoad(junction, bestGoal);
+			junction = network.getRoadJunction1(road) == junction ? network.getRoadJunction2(road)
+					: network.getRoadJunction1(road);
+			path.add(road, junction);
+		}
+		path.finish(startLotNumber, endRoad, endLotNumber);
+		return true;
+	}
+
+	/* Accessors */
+	@Override
+	public PathBuilder getPath() {
+		return path;
+	}
+}
@@ -0,0 +1,383 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+/**
+ * Class loads the environment file straight into a {@link RoadNetwork}
+ * without the {@link Graph} objects. The file is memory-mapped and the
+ * fields of each line are found in place in the mapped bytes; only road
+ * names and the first occurrence of each junction name become strings.
+ * Junction names are interned through a hash table over the raw bytes.
+ *
+ * Large files can be split at line breaks into chunks parsed by several
+ * threads. The chunks are then merged in file order, so the network is the
+ * same for any number of threads.
+ *
+ * Fields are trimmed as by {@link String#trim}, blank lines are skipped and
+ * a road with a name seen before replaces the earlier one, as in
+ * {@link Graph}. Files must be smaller than 2 GB.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class EnvironmentLoader {
+	/** The smallest chunk worth a thread of its own, in bytes. */
+	private static final int MIN_CHUNK_SIZE = 1 << 22;
+
+	/** The mapped environment file. */
+	private final ByteBuffer buffer;
+	/** The charset of the names, the platform one as used by {@link Graph}. */
+	private final Charset charset = Charset.defaultCharset();
+	/** The builder receiving the roads in file order. */
+	private final RoadNetworkBuilder builder = new RoadNetworkBuilder();
+
+	/** The hash table of junction names: index into the junction arrays plus one, 0 if free. */
+	private int[] table = new int[1 << 10];
+	/** The number of junction names in the table. */
+	private int nameCount = 0;
+	/** The hash of each junction name. */
+	private int[] nameHashes = new int[256];
+	/** The start of each junction name in the name pool. */
+	private int[] nameStarts = new int[256];
+	/** The length in bytes of each junction name. */
+	private int[] nameLengths = new int[256];
+	/** The junction id of each junction name. */
+	private int[] nameJunctions = new int[256];
+	/** The bytes of the junction names. */
+	private byte[] pool = new byte[4096];
+	/** The number of bytes used in the name pool. */
+	private int poolSize = 0;
+
+	/**
+	 * Description: Constructor with one argument.
+	 */
+	private EnvironmentLoader(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Description: Loads the road network from the environment file.
+	 *
+	 * @param fileName:
+	 *            The name of the environment file.
+	 * @param threads:
+	 *            The number of threads parsing the file; small files are
+	 *            parsed on the calling thread.
+	 *
+	 * @return network:
+	 *            The road network.
+	 */
+	public static RoadNetwork load(String fileName, int threads)
+			throws IOException, InterruptedException, ExecutionException {
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Environment file too large to map: " + fileName);
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		return new EnvironmentLoader(buffer).parse(threads);
+	}
+
+	/**
+	 * Description: Parses the chunks, on a pool if there are several, and
+	 * merges them in file order.
+	 */
+	private RoadNetwork parse(int threads) throws InterruptedException, ExecutionException {
+		int size = buffer.limit();
+		int chunkCount = Math.max(1, Math.min(threads, size / MIN_CHUNK_SIZE));
+		List<Chunk> chunks = new ArrayList<Chunk>();
+		int from = 0;
+		for (int i = 1; i <= chunkCount; i++) {
+			int to = i == chunkCount ? size : lineEnd(size / chunkCount * i);
+			if (to > from) {
+				chunks.add(new Chunk(from, to));
+			}
+			from = Math.max(from, to);
+		}
+
+		if (chunks.size() == 1) {
+			chunks.get(0).parse();
+		} else {
+			ExecutorService pool = Executors.newFixedThreadPool(chunks.size());
+			try {
+				List<Future<?>> futures = new ArrayList<Future<?>>();
+				for (Chunk chunk : chunks) {
+					futures.add(pool.submit(chunk::parse));
+				}
+				for (Future<?> future : futures) {
+					future.get();
+				}
+			} finally {
+				pool.shutdown();
+			}
+		}
+
+		for (Chunk chunk : chunks) {
+			for (int road = 0; road < chunk.roadCount; road++) {
+				int junction1 = internJunction(chunk.names, road * 6);
+				int junction2 = internJunction(chunk.names, road * 6 + 3);
+				builder.addRoad(chunk.roadNames[road], junction1, junction2, chunk.numbers[road * 2],
+						chunk.numbers[road * 2 + 1]);
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Description: Finds the end of the line holding the position.
+	 */
+	private int lineEnd(int position) {
+		while (position < buffer.limit() && !isLineBreak(buffer.get(position))) {
+			position++;
+		}
+		return position;
+	}
+
+	/**
+	 * Description: Gets the junction id of a name found by a chunk, adding
+	 * the junction on its first occurrence.
+	 *
+	 * @param names:
+	 *            The start, end and hash of the names found by the chunk.
+	 * @param index:
+	 *            The index of the start of the name.
+	 */
+	private int internJunction(int[] names, int index) {
+		int start = names[index];
+		int length = names[index + 1] - start;
+		int hash = names[index + 2];
+		int mask = table.length - 1;
+		for (int slot = mix(hash) & mask;; slot = (slot + 1) & mask) {
+			int name = table[slot] - 1;
+			if (name == -1) {
+				return addName(slot, hash, start, length);
+			}
+			if (nameHashes[name] == hash && nameLengths[name] == length && equalsPool(nameStarts[name], start, length)) {
+				return nameJunctions[name];
+			}
+		}
+	}
+
+	/**
+	 * Description: Adds a junction name to the free slot of the table.
+	 */
+	private int addName(int slot, int hash, int start, int length) {
+		if (poolSize + length > pool.length) {
+			pool = Arrays.copyOf(pool, Math.max(pool.length * 2, poolSize + length));
+		}
+		buffer.get(start, pool, poolSize, length);
+		int junction = builder.addJunction(new String(pool, poolSize, length, charset));
+		if (nameCount == nameHashes.length) {
+			int capacity = nameCount * 2;
+			nameHashes = Arrays.copyOf(nameHashes, capacity);
+			nameStarts = Arrays.copyOf(nameStarts, capacity);
+			nameLengths = Arrays.copyOf(nameLengths, capacity);
+			nameJunctions = Arrays.copyOf(nameJunctions, capacity);
+		}
+		nameHashes[nameCount] = hash;
+		nameStarts[nameCount] = poolSize;
+		nameLengths[nameCount] = length;
+		nameJunctions[nameCount] = junction;
+		poolSize += length;
+		table[slot] = ++nameCount;
+		/* Keeps the table at most half full. */
+		if (nameCount * 2 > table.length) {
+			rehash();
+		}
+		return junction;
+	}
+
+	/**
+	 * Description: Doubles the hash table.
+	 */
+	private void rehash() {
+		table = new int[table.length * 2];
+		int mask = table.length - 1;
+		for (int name = 0; name < nameCount; name++) {
+			int slot = mix(nameHashes[name]) & mask;
+			while (table[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = name + 1;
+		}
+	}
+
+	/**
+	 * Description: Compares bytes of the name pool with bytes of the file.
+	 */
+	private boolean equalsPool(int poolStart, int start, int length) {
+		for (int i = 0; i < length; i++) {
+			if (pool[poolStart + i] != buffer.get(start + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Description: Spreads the bits of the hash over the table index.
+	 */
+	private static int mix(int hash) {
+		return hash ^ (hash >>> 16) ^ (hash >>> 7);
+	}
+
+	/**
+	 * Description: Checks whether the byte ends a line.
+	 */
+	private static boolean isLineBreak(byte b) {
+		return b == '\n' || b == '\r';
+	}
+
+	/**
+	 * Class holds the roads of one part of the file, found by one thread.
+	 */
+	private class Chunk {
+		/** The first byte of the chunk. */
+		private final int from;
+		/** The byte after the chunk. */
+		private final int to;
+		/** The number of roads in the chunk. */
+		private int roadCount = 0;
+		/** The names of the roads. */
+		private String[] roadNames = new String[64];
+		/** The start, end and hash of the two junction names of each road. */
+		private int[] names = new int[384];
+		/** The length and number of lots of each road. */
+		private int[] numbers = new int[128];
+		/** The start and end of each field of the current line. */
+		private final int[] fields = new int[10];
+		/** The bytes of the name being decoded. */
+		private byte[] scratch = new byte[64];
+
+		/**
+		 * Description: Constructor with two arguments.
+		 */
+		Chunk(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Description: Parses every line of the chunk.
+		 */
+		void parse() {
+			int position = from;
+			while (position < to) {
+				if (isLineBreak(buffer.get(position))) {
+					position++;
+					continue;
+				}
+				int end = position;
+				while (end < to && !isLineBreak(buffer.get(end))) {
+					end++;
+				}
+				parseLine(position, end);
+				position = end;
+			}
+		}
+
+		/**
+		 * Description: Parses the line at [start, end) into a road.
+		 */
+		private void parseLine(int start, int end) {
+			int fieldCount = 0;
+			int fieldStart = start;
+			for (int i = start; i <= end && fieldCount < 5; i++) {
+				if (i == end || buffer.get(i) == ';') {
+					int s = fieldStart;
+					int e = i;
+					while (s < e && (buffer.get(s) & 0xff) <= ' ') {
+						s++;
+					}
+					while (e > s && (buffer.get(e - 1) & 0xff) <= ' ') {
+						e--;
+					}
+					fields[fieldCount * 2] = s;
+					fields[fieldCount * 2 + 1] = e;
+					fieldCount++;
+					fieldStart = i + 1;
+				}
+			}
+			if (fieldCount == 1 && fields[0] == fields[1]) {
+				/* A blank line. */
+				return;
+			}
+			if (fieldCount < 5) {
+				throw new IllegalArgumentException("Malformed road: " + text(start, end));
+			}
+
+			if (roadCount == roadNames.length) {
+				int capacity = roadCount * 2;
+				roadNames = Arrays.copyOf(roadNames, capacity);
+				names = Arrays.copyOf(names, capacity * 6);
+				numbers = Arrays.copyOf(numbers, capacity * 2);
+			}
+			roadNames[roadCount] = text(fields[0], fields[1]);
+			for (int k = 0; k < 2; k++) {
+				int nameStart = fields[2 + k * 2];
+				int nameEnd = fields[3 + k * 2];
+				int hash = 0;
+				for (int i = nameStart; i < nameEnd; i++) {
+					hash = 31 * hash + buffer.get(i);
+				}
+				names[roadCount * 6 + k * 3] = nameStart;
+				names[roadCount * 6 + k * 3 + 1] = nameEnd;
+				names[roadCount * 6 + k * 3 + 2] = hash;
+			}
+			numbers[roadCount * 2] = parseInt(fields[6], fields[7]);
+			numbers[roadCount * 2 + 1] = parseInt(fields[8], fields[9]);
+			roadCount++;
+		}
+
+		/**
+		 * Description: Parses the integer at [start, end) as
+		 * {@link Integer#parseInt} would.
+		 */
+		private int parseInt(int start, int end) {
+			int i = start;
+			boolean negative = false;
+			if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+				negative = buffer.get(i) == '-';
+				i++;
+			}
+			if (i == end) {
+				throw new NumberFormatException("For input string: \"" + text(start, end) + "\"");
+			}
+			long value = 0;
+			for (; i < end; i++) {
+				int digit = buffer.get(i) - '0';
+				if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+					throw new NumberFormatException("For input string: \"" + text(start, end) + "\"");
+				}
+				value = value * 10 + digit;
+			}
+			value = negative ? -value : value;
+			if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+				throw new NumberFormatException("For input string: \"" + text(start, end) + "\"");
+			}
+			return (int) value;
+		}
+
+		/**
+		 * Description: Decodes the bytes at [start, end) of the file.
+		 */
+		private String text(int start, int end) {
+			int length = end - start;
+			if (length > scratch.length) {
+				scratch = new byte[Math.max(length, scratch.length * 2)];
+			}
+			buffer.get(start, scratch, 0, length);
+			return new String(scratch, 0, length, charset);
+		}
+	}
+}
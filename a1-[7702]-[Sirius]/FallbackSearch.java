@@ -0,0 +1,82 @@
+import java.util.function.IntFunction;
+/**
+ * Class answers queries with an engine built on {@link Preprocessing} for
+ * as long as the road changes since the build leave the preprocessing
+ * exact. Once a change affects it, queries go to a {@link DijkstraSearch}
+ * over the live network instead. While the preprocessing is exact only the
+ * changes made since the last query are checked; after that, each new
+ * version checks the net changes since the build, so the engine is used
+ * again once the roads that affected it are back as they were, e.g. a
+ * closed road reopened.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class FallbackSearch implements SearchEngine {
+	/** The road network to search. */
+	private final RoadNetwork network;
+	/** The engine built on the preprocessing. */
+	private final SearchEngine engine;
+	/** The preprocessing the engine relies on. */
+	private final Preprocessing preprocessing;
+	/** Creates the search workspaces of the fallback search. */
+	private final IntFunction<SearchWorkspace> workspaces;
+	/** The fallback search, created when first needed. */
+	private SearchEngine fallback;
+	/** The engine that answered the last query. */
+	private SearchEngine active;
+	/** The last version of the network checked. */
+	private int checkedVersion;
+	/** Whether the preprocessing is still exact at the checked version. */
+	private boolean current = true;
+
+	/**
+	 * Description: Constructor with four arguments.
+	 *
+	 * @param network:
+	 *            The road network to search.
+	 * @param engine:
+	 *            The engine built on the preprocessing.
+	 * @param preprocessing:
+	 *            The preprocessing the engine relies on.
+	 * @param workspaces:
+	 *            Creates the search workspaces of the fallback search.
+	 */
+	public FallbackSearch(RoadNetwork network, SearchEngine engine, Preprocessing preprocessing,
+			IntFunction<SearchWorkspace> workspaces) {
+		this.network = network;
+		this.engine = engine;
+		this.preprocessing = preprocessing;
+		this.workspaces = workspaces;
+		this.active = engine;
+		this.checkedVersion = preprocessing.getBuildVersion();
+	}
+
+	@Override
+	public boolean route(int startLotNumber, int startRoad, int endLotNumber, int endRoad) {
+		if (checkedVersion != network.getVersion()) {
+			current = current && preprocessing.survivesChanges(network, checkedVersion)
+					|| preprocessing.survivesNetChanges(network);
+			checkedVersion = network.getVersion();
+		}
+		if (current) {
+			active = engine;
+		} else {
+			if (fallback == null) {
+				fallback = new DijkstraSearch(network, workspaces);
+			}
+			active = fallback;
+		}
+		return active.route(startLotNumber, startRoad, endLotNumber, endRoad);
+	}
+
+	/* Accessors */
+	@Override
+	public PathBuilder getPath() {
+		return active.getPath();
+	}
+
+	public boolean isCurrent() {
+		return current;
+	}
+}
@@ -14,6 +14,8 @@ public class Graph {
 	private Map<String, Junction> junctions = new HashMap<String, Junction>();
 	/** Stores all Roads */
 	private Map<String, Road> roads = new HashMap<String, Road>();
+	/** The CSR form of the graph, built on first use. */
+	private RoadNetwork network = null;
 	
 	/**
 	 * Description: Constructor with one argument.
@@ -140,13 +142,26 @@ public class Graph {
 		junction1.addRoads(road);
 		junction2.addRoads(road);
 		roads.put(roadName, road);
+		network = null;
 	}
-	
-	/* Reset all junctions in the graph. */
-	public void reset() {
-		for (Junction junction : junctions.values()) {
-		   junction.reset();
+
+	/**
+	 * Description: Gets the CSR form of the graph used by the search. It is
+	 * built once from the roads passed to {@link #createGraph} and rebuilt
+	 * only if more roads are added.
+	 *
+	 * @return network:
+	 *            The road network.
+	 */
+	public synchronized RoadNetwork getNetwork() {
+		if (network == null) {
+			RoadNetworkBuilder builder = new RoadNetworkBuilder();
+			for (Road road : roads.values()) {
+				builder.addRoad(road.getName(), road.getJunction1().getName(), road.getJunction2().getName(),
+						road.getRoadLength(), road.getNLots());
+			}
+			network = builder.build();
 		}
+		return network;
 	}
-	
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+/**
+ * Class answers queries from {@link HubLabels} without any search: the
+ * labels of the four junction pairs of the start and goal roads are merged
+ * and the lot offsets added. The path is only walked from the labels when
+ * {@link #getPath} asks for it, so a caller that needs the length alone
+ * never pays for it.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class HubLabelSearch implements SearchEngine {
+	/** The road network to search. */
+	private final RoadNetwork network;
+	/** The hub labels of the network. */
+	private final HubLabels labels;
+	/** The path of the last query, walked on demand. */
+	private final PathBuilder path;
+	/** The roads of a walk to the hub. */
+	private final IntList walkRoads = new IntList();
+	/** The junction each road of the walk leads to. */
+	private final IntList walkJunctions = new IntList();
+	/** Whether the path of the last query is yet to be walked. */
+	private boolean pathPending;
+	/** The length of the last query's shortest path. */
+	private double length;
+
+	/* The last query and the junctions of its shortest path. */
+	private int startLotNumber;
+	private int startRoad;
+	private int endLotNumber;
+	private int endRoad;
+	private int bestRoot;
+	private int bestGoal;
+
+	/**
+	 * Description: Constructor with two arguments.
+	 *
+	 * @param network:
+	 *            The road network to search.
+	 * @param labels:
+	 *            The hub labels of the network.
+	 */
+	public HubLabelSearch(RoadNetwork network, HubLabels labels) {
+		this.network = network;
+		this.labels = labels;
+		this.path = new PathBuilder(network);
+	}
+
+	@Override
+	public boolean route(int startLotNumber, int startRoad, int endLotNumber, int endRoad) {
+		int[] roots = { network.getRoadJunction1(startRoad), network.getRoadJunction2(startRoad) };
+		int[] goals = { network.getRoadJunction1(endRoad), network.getRoadJunction2(endRoad) };
+
+		/* Picks the shortest of the four root and goal junction pairs. */
+		double shortestLength = Double.MAX_VALUE;
+		bestRoot = -1;
+		for (int root : roots) {
+			for (int goal : goals) {
+				long length = labels.getLength(root, goal);
+				if (length < 0) {
+					continue;
+				}
+				double total = network.lengthToLot(startRoad, root, startLotNumber) + length
+						+ network.lengthToLot(endRoad, goal, endLotNumber);
+				if (total < shortestLength) {
+					shortestLength = total;
+					bestRoot = root;
+					bestGoal = goal;
+				}
+			}
+		}
+		if (bestRoot == -1) {
+			pathPending = false;
+			return false;
+		}
+		this.startLotNumber = startLotNumber;
+		this.startRoad = startRoad;
+		this.endLotNumber = endLotNumber;
+		this.endRoad = endRoad;
+		length = shortestLength;
+		pathPending = true;
+		return true;
+	}
+
+	/**
+	 * Description: Walks the path of the last query from the root up to
+	 * their common hub, then from the hub down to the goal by reversing the
+	 * walk from the goal up to the hub.
+	 */
+	private void walkPath() {
+		int bestHub = labels.findCommonHub(bestRoot, bestGoal);
+		path.begin(startRoad, bestRoot);
+		walkRoads.clear();
+		walkJunctions.clear();
+		labels.walkToHub(network, bestRoot, bestHub, walkRoads, walkJunctions);
+		for (int i = 0; i < walkRoads.size(); i++) {
+			path.add(walkRoads.get(i), walkJunctions.get(i));
+		}
+		walkRoads.clear();
+		walkJunctions.clear();
+		labels.walkToHub(network, bestGoal, bestHub, walkRoads, walkJunctions);
+		for (int i = walkRoads.size() - 1; i >= 0; i--) {
+			path.add(walkRoads.get(i), i > 0 ? walkJunctions.get(i - 1) : bestGoal);
+		}
+		path.finish(startLotNumber, endRoad, endLotNumber);
+	}
+
+	/* Accessors */
+	@Override
+	public PathBuilder getPath() {
+		if (pathPending) {
+			walkPath();
+			pathPending = false;
+		}
+		return path;
+	}
+
+	public double getLength() {
+		return length;
+	}
+}
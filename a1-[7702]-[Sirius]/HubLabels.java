@@ -0,0 +1,490 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+/**
+ * Class holds a hub label of every junction: a list of hubs with the
+ * length of the shortest path to each, such that for every two junctions
+ * some hub on a shortest path between them is in both labels. The length
+ * between two junctions is then the smallest sum over their common hubs,
+ * found by merging the two labels.
+ *
+ * Labels are built by pruned labelling: junctions are taken in order of
+ * importance and a search from each one labels only the junctions the
+ * labels so far do not already cover. Importance is how many junctions a
+ * junction leads to in a few sample shortest path trees. Hubs are stored
+ * by their rank in that order, so every label is sorted by hub. Each entry
+ * also keeps the road from the junction towards the hub, so a path can be
+ * walked from the labels when asked for. Every length in the labels is the
+ * length of a path of those roads, so any other road can be made longer or
+ * closed without changing a label.
+ *
+ * Usage: java -cp a1-[7702]-[Sirius].jar HubLabels environmentFile labelFile [options]
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class HubLabels implements Preprocessing {
+	/** The number of sample trees ranking the junctions. */
+	private static final int SAMPLE_COUNT = 64;
+	/** The number of random length queries timed by the main method. */
+	private static final int TIMED_QUERIES = 1000000;
+	/** The first int of a label file. */
+	private static final int MAGIC = 0x484c3032;
+
+	/** The number of roads of the network. */
+	private final int roadCount;
+	/** The first label entry of each junction. */
+	private final int[] offsets;
+	/** The rank of the hub of each label entry, ascending within a label. */
+	private final int[] hubs;
+	/** The length to the hub of each label entry. */
+	private final int[] lengths;
+	/** The road from the junction towards the hub of each entry, -1 at the hub. */
+	private final int[] roads;
+	/** Whether a label entry uses each road. */
+	private final boolean[] usedRoads;
+	/** The version of the network the labels were built from. */
+	private final int buildVersion;
+	/** The {@link RoadNetwork#getLayoutHash()} of the network. */
+	private final int layoutHash;
+
+	/**
+	 * Description: Constructor with seven arguments.
+	 */
+	private HubLabels(int roadCount, int[] offsets, int[] hubs, int[] lengths, int[] roads, int buildVersion,
+			int layoutHash) {
+		this.roadCount = roadCount;
+		this.layoutHash = layoutHash;
+		this.offsets = offsets;
+		this.hubs = hubs;
+		this.lengths = lengths;
+		this.roads = roads;
+		this.buildVersion = buildVersion;
+		this.usedRoads = new boolean[roadCount];
+		for (int road : roads) {
+			if (road >= 0) {
+				usedRoads[road] = true;
+			}
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		RoadNetwork network = Assignment.loadNetwork(args[0], SearchOptions.parse(args, 2));
+		long start = System.nanoTime();
+		HubLabels labels = build(network);
+		int junctionCount = network.getJunctionCount();
+		System.out.printf("Labelled %d junctions with %.1f hubs each in %.1f s%n", junctionCount,
+				labels.getEntryCount() / (double) Math.max(1, junctionCount), (System.nanoTime() - start) / 1e9);
+		labels.save(args[1]);
+
+		if (junctionCount > 0) {
+			Random random = new Random(7702);
+			int[] pairs = new int[2 * TIMED_QUERIES];
+			for (int i = 0; i < pairs.length; i++) {
+				pairs[i] = random.nextInt(junctionCount);
+			}
+			/* The first round warms up the compiler. */
+			for (int round = 0; round < 2; round++) {
+				long sum = 0;
+				start = System.nanoTime();
+				for (int i = 0; i < pairs.length; i += 2) {
+					sum += labels.getLength(pairs[i], pairs[i + 1]);
+				}
+				System.out.printf("%.0f ns per length query (checksum %d)%n",
+						(System.nanoTime() - start) / (double) TIMED_QUERIES, sum);
+			}
+		}
+	}
+
+	/**
+	 * Description: Builds the hub labels of the road network.
+	 *
+	 * @param network:
+	 *            The road network.
+	 *
+	 * @return labels:
+	 *            The hub labels.
+	 */
+	public static HubLabels build(RoadNetwork network) {
+		int junctionCount = network.getJunctionCount();
+		int[] order = rankJunctions(network);
+		IntList[] labelHubs = new IntList[junctionCount];
+		IntList[] labelLengths = new IntList[junctionCount];
+		IntList[] labelRoads = new IntList[junctionCount];
+		for (int junction = 0; junction < junctionCount; junction++) {
+			labelHubs[junction] = new IntList(4);
+			labelLengths[junction] = new IntList(4);
+			labelRoads[junction] = new IntList(4);
+		}
+
+		SearchWorkspace workspace = new SearchWorkspace(junctionCount);
+		/* The length from the current hub to each hub of its own label, -1 if none. */
+		int[] hubLengths = new int[junctionCount];
+		Arrays.fill(hubLengths, -1);
+		for (int rank = 0; rank < junctionCount; rank++) {
+			int hub = order[rank];
+			IntList ownHubs = labelHubs[hub];
+			for (int i = 0; i < ownHubs.size(); i++) {
+				hubLengths[ownHubs.get(i)] = labelLengths[hub].get(i);
+			}
+			hubLengths[rank] = 0;
+
+			workspace.reset();
+			JunctionQueue queue = workspace.getQueue();
+			workspace.update(hub, 0, -1, -1);
+			queue.add(hub, 0);
+			while (!queue.isEmpty()) {
+				int current = queue.poll();
+				double currentLength = workspace.getLengthToRoot(current);
+				if (queue.getPolledLength() > currentLength) {
+					continue;
+				}
+				if (currentLength > Integer.MAX_VALUE) {
+					throw new IllegalStateException("Path length does not fit a label: " + currentLength);
+				}
+				int length = (int) currentLength;
+				/* Skips junctions whose labels already give a path this short. */
+				if (current != hub && isCovered(labelHubs[current], labelLengths[current], hubLengths, length)) {
+					continue;
+				}
+				labelHubs[current].add(rank);
+				labelLengths[current].add(length);
+				labelRoads[current].add(workspace.getLastRoad(current));
+				for (int arc = network.firstArc(current); arc < network.lastArc(current); arc++) {
+					int next = network.getArcTarget(arc);
+					double newLength = currentLength + network.getArcLength(arc);
+					if (newLength < workspace.getLengthToRoot(next)) {
+						workspace.update(next, newLength, current, network.getArcRoad(arc));
+						queue.add(next, newLength);
+					}
+				}
+			}
+
+			for (int i = 0; i < ownHubs.size(); i++) {
+				hubLengths[ownHubs.get(i)] = -1;
+			}
+			hubLengths[rank] = -1;
+		}
+
+		/* Packs the labels into flat arrays. */
+		int[] offsets = new int[junctionCount + 1];
+		for (int junction = 0; junction < junctionCount; junction++) {
+			offsets[junction + 1] = offsets[junction] + labelHubs[junction].size();
+		}
+		int entryCount = offsets[junctionCount];
+		int[] hubs = new int[entryCount];
+		int[] lengths = new int[entryCount];
+		int[] roads = new int[entryCount];
+		for (int junction = 0; junction < junctionCount; junction++) {
+			for (int i = 0; i < labelHubs[junction].size(); i++) {
+				hubs[offsets[junction] + i] = labelHubs[junction].get(i);
+				lengths[offsets[junction] + i] = labelLengths[junction].get(i);
+				roads[offsets[junction] + i] = labelRoads[junction].get(i);
+			}
+		}
+		return new HubLabels(network.getRoadCount(), offsets, hubs, lengths, roads, network.getVersion(),
+				network.getLayoutHash());
+	}
+
+	/**
+	 * Description: Checks whether a label and the current hub's label share a
+	 * hub giving a path no longer than the length.
+	 */
+	private static boolean isCovered(IntList labelHubs, IntList labelLengths, int[] hubLengths, int length) {
+		for (int i = 0; i < labelHubs.size(); i++) {
+			int hubLength = hubLengths[labelHubs.get(i)];
+			if (hubLength >= 0 && (long) hubLength + labelLengths.get(i) <= length) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Description: Orders the junctions by importance: the number of
+	 * junctions below each one in full shortest path trees grown from
+	 * evenly spread sample roots. Junctions on many shortest paths come
+	 * first, so they become the hubs of many labels.
+	 */
+	private static int[] rankJunctions(RoadNetwork network) {
+		int junctionCount = network.getJunctionCount();
+		long[] importance = new long[junctionCount];
+		int[] below = new int[junctionCount];
+		int[] settled = new int[junctionCount];
+		SearchWorkspace workspace = new SearchWorkspace(junctionCount);
+		int samples = Math.min(SAMPLE_COUNT, junctionCount);
+		for (int sample = 0; sample < samples; sample++) {
+			int root = (int) ((long) sample * junctionCount / samples);
+			int settledCount = ShortestPathTreeSearch.growTree(network, workspace, root, settled);
+			for (int i = 0; i < settledCount; i++) {
+				below[settled[i]] = 1;
+			}
+			/* Adds each junction's count to its parent, leaves first. */
+			for (int i = settledCount - 1; i >= 0; i--) {
+				int junction = settled[i];
+				importance[junction] += below[junction];
+				int parent = workspace.getLastJunction(junction);
+				if (parent != -1) {
+					below[parent] += below[junction];
+				}
+			}
+		}
+
+		/* Sorts by importance, then by degree, most important first. */
+		Integer[] junctions = new Integer[junctionCount];
+		for (int junction = 0; junction < junctionCount; junction++) {
+			junctions[junction] = junction;
+		}
+		Arrays.sort(junctions, (a, b) -> importance[a] != importance[b] ? Long.compare(importance[b], importance[a])
+				: Integer.compare(network.lastArc(b) - network.firstArc(b), network.lastArc(a) - network.firstArc(a)));
+		int[] order = new int[junctionCount];
+		for (int rank = 0; rank < junctionCount; rank++) {
+			order[rank] = junctions[rank];
+		}
+		return order;
+	}
+
+	/**
+	 * Description: Gets the length of the shortest path between two
+	 * junctions by merging their labels.
+	 *
+	 * @param from:
+	 *            The id of one junction.
+	 * @param to:
+	 *            The id of the other junction.
+	 *
+	 * @return length:
+	 *            The length, or -1 if no path joins them.
+	 */
+	public long getLength(int from, int to) {
+		int i = offsets[from];
+		int iEnd = offsets[from + 1];
+		int j = offsets[to];
+		int jEnd = offsets[to + 1];
+		long shortest = Long.MAX_VALUE;
+		/* Steps without branching on which side is behind, which is unpredictable. */
+		while (i < iEnd && j < jEnd) {
+			int hub1 = hubs[i];
+			int hub2 = hubs[j];
+			long length = hub1 == hub2 ? (long) lengths[i] + lengths[j] : Long.MAX_VALUE;
+			shortest = Math.min(shortest, length);
+			i += hub1 <= hub2 ? 1 : 0;
+			j += hub2 <= hub1 ? 1 : 0;
+		}
+		return shortest == Long.MAX_VALUE ? -1 : shortest;
+	}
+
+	/**
+	 * Description: Finds the common hub of two labels on the shortest path
+	 * between the junctions.
+	 *
+	 * @param from:
+	 *            The id of one junction.
+	 * @param to:
+	 *            The id of the other junction.
+	 *
+	 * @return hub:
+	 *            The rank of the hub, or -1 if the labels share no hub.
+	 */
+	public int findCommonHub(int from, int to) {
+		int i = offsets[from];
+		int iEnd = offsets[from + 1];
+		int j = offsets[to];
+		int jEnd = offsets[to + 1];
+		long shortest = Long.MAX_VALUE;
+		int best = -1;
+		while (i < iEnd && j < jEnd) {
+			int hub1 = hubs[i];
+			int hub2 = hubs[j];
+			if (hub1 == hub2) {
+				long length = (long) lengths[i++] + lengths[j++];
+				if (length < shortest) {
+					shortest = length;
+					best = hub1;
+				}
+			} else if (hub1 < hub2) {
+				i++;
+			} else {
+				j++;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Description: Finds a hub in the label of a junction.
+	 *
+	 * @param junction:
+	 *            The id of the junction.
+	 * @param hub:
+	 *            The rank of the hub.
+	 *
+	 * @return entry:
+	 *            The label entry of the hub, or -1 if the label lacks it.
+	 */
+	public int findHub(int junction, int hub) {
+		int entry = Arrays.binarySearch(hubs, offsets[junction], offsets[junction + 1], hub);
+		return entry < 0 ? -1 : entry;
+	}
+
+	/**
+	 * Description: Walks the shortest path from a junction to one of its
+	 * hubs, following the road of each label entry.
+	 *
+	 * @param network:
+	 *            The road network of the labels.
+	 * @param junction:
+	 *            The id of the junction the walk starts at.
+	 * @param hub:
+	 *            The rank of the hub.
+	 * @param walkRoads:
+	 *            Receives the roads of the walk in order.
+	 * @param walkJunctions:
+	 *            Receives the junction each road leads to.
+	 */
+	public void walkToHub(RoadNetwork network, int junction, int hub, IntList walkRoads, IntList walkJunctions) {
+		for (int road = roads[findHub(junction, hub)]; road != -1; road = roads[findHub(junction, hub)]) {
+			junction = network.getRoadJunction1(road) == junction ? network.getRoadJunction2(road)
+					: network.getRoadJunction1(road);
+			walkRoads.add(road);
+			walkJunctions.add(junction);
+		}
+	}
+
+	/**
+	 * Description: Writes the labels to a gzip file. Each label is its size
+	 * followed by the gaps between its hubs, the lengths and the roads, all
+	 * as variable-length ints, so small numbers take one byte.
+	 *
+	 * @param fileName:
+	 *            The name of the label file.
+	 */
+	public void save(String fileName) throws IOException {
+		DataOutputStream output = new DataOutputStream(
+				new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(fileName), 1 << 16), 1 << 16));
+		try {
+			int junctionCount = offsets.length - 1;
+			output.writeInt(MAGIC);
+			output.writeInt(junctionCount);
+			output.writeInt(roadCount);
+			output.writeInt(layoutHash);
+			for (int junction = 0; junction < junctionCount; junction++) {
+				writeVarInt(output, offsets[junction + 1] - offsets[junction]);
+				int lastHub = 0;
+				for (int entry = offsets[junction]; entry < offsets[junction + 1]; entry++) {
+					writeVarInt(output, hubs[entry] - lastHub);
+					writeVarInt(output, lengths[entry]);
+					writeVarInt(output, roads[entry] + 1);
+					lastHub = hubs[entry];
+				}
+			}
+		} finally {
+			output.close();
+		}
+	}
+
+	/**
+	 * Description: Reads labels written by {@link #save}.
+	 *
+	 * @param fileName:
+	 *            The name of the label file.
+	 * @param network:
+	 *            The road network the labels were built from.
+	 *
+	 * @return labels:
+	 *            The hub labels.
+	 */
+	public static HubLabels load(String fileName, RoadNetwork network) throws IOException {
+		DataInputStream input = new DataInputStream(
+				new BufferedInputStream(new GZIPInputStream(new FileInputStream(fileName), 1 << 16), 1 << 16));
+		try {
+			if (input.readInt() != MAGIC) {
+				throw new IOException("Not a hub label file: " + fileName);
+			}
+			int junctionCount = input.readInt();
+			int roadCount = input.readInt();
+			int layoutHash = input.readInt();
+			if (junctionCount != network.getJunctionCount() || roadCount != network.getRoadCount()
+					|| layoutHash != network.getLayoutHash()) {
+				throw new IOException("Hub labels do not match the road network: " + fileName);
+			}
+			int[] offsets = new int[junctionCount + 1];
+			IntList hubs = new IntList();
+			IntList lengths = new IntList();
+			IntList roads = new IntList();
+			for (int junction = 0; junction < junctionCount; junction++) {
+				int size = readVarInt(input);
+				int hub = 0;
+				for (int i = 0; i < size; i++) {
+					hub += readVarInt(input);
+					hubs.add(hub);
+					lengths.add(readVarInt(input));
+					roads.add(readVarInt(input) - 1);
+				}
+				offsets[junction + 1] = offsets[junction] + size;
+			}
+			return new HubLabels(roadCount, offsets, hubs.toArray(), lengths.toArray(), roads.toArray(),
+					network.getVersion(), layoutHash);
+		} finally {
+			input.close();
+		}
+	}
+
+	/**
+	 * Description: Writes a non-negative int seven bits per byte, the high
+	 * bit marking that more bytes follow.
+	 */
+	private static void writeVarInt(OutputStream output, int value) throws IOException {
+		while ((value & ~0x7f) != 0) {
+			output.write((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		output.write(value);
+	}
+
+	/**
+	 * Description: Reads an int written by {@link #writeVarInt}.
+	 */
+	private static int readVarInt(InputStream input) throws IOException {
+		int value = 0;
+		for (int shift = 0;; shift += 7) {
+			int b = input.read();
+			if (b < 0) {
+				throw new IOException("Hub label file ends early");
+			}
+			value |= (b & 0x7f) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+	}
+
+	@Override
+	public boolean survivesChange(int road, boolean longer) {
+		return longer && !usedRoads[road];
+	}
+
+	/* Accessors */
+	public int getEntryCount() {
+		return hubs.length;
+	}
+
+	public int getLabelSize(int junction) {
+		return offsets[junction + 1] - offsets[junction];
+	}
+
+	@Override
+	public int getBuildVersion() {
+		return buildVersion;
+	}
+}
@@ -0,0 +1,121 @@
+import java.util.Arrays;
+/**
+ * Class represents a binary heap of junctions indexed by junction id, so a
+ * junction is queued at most once and a shorter path lowers its key in
+ * place instead of adding a duplicate entry.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class IndexedJunctionHeap implements JunctionQueue {
+	/** The junctions in heap order. */
+	private final int[] heap;
+	/** The position of each junction in the heap, or -1 if not queued. */
+	private final int[] positions;
+	/** The queued length of each junction. */
+	private final double[] lengths;
+	/** The number of junctions in the heap. */
+	private int size = 0;
+	/** The length of the last polled junction. */
+	private double polledLength;
+
+	/**
+	 * Description: Constructor with one argument.
+	 *
+	 * @param junctionCount:
+	 *            The number of junctions in the road network.
+	 */
+	public IndexedJunctionHeap(int junctionCount) {
+		heap = new int[junctionCount];
+		positions = new int[junctionCount];
+		lengths = new double[junctionCount];
+		Arrays.fill(positions, -1);
+	}
+
+	@Override
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			positions[heap[i]] = -1;
+		}
+		size = 0;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void add(int junction, double length) {
+		int position = positions[junction];
+		if (position < 0) {
+			heap[size] = junction;
+			positions[junction] = size;
+			lengths[junction] = length;
+			siftUp(size++);
+		} else if (length < lengths[junction]) {
+			lengths[junction] = length;
+			siftUp(position);
+		}
+	}
+
+	@Override
+	public int poll() {
+		int junction = heap[0];
+		positions[junction] = -1;
+		polledLength = lengths[junction];
+		if (--size > 0) {
+			heap[0] = heap[size];
+			positions[heap[0]] = 0;
+			siftDown(0);
+		}
+		return junction;
+	}
+
+	@Override
+	public double getPolledLength() {
+		return polledLength;
+	}
+
+	/**
+	 * Description: Moves the junction at the position towards the root.
+	 */
+	private void siftUp(int position) {
+		int junction = heap[position];
+		double length = lengths[junction];
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (lengths[heap[parent]] <= length) {
+				break;
+			}
+			heap[position] = heap[parent];
+			positions[heap[position]] = position;
+			position = parent;
+		}
+		heap[position] = junction;
+		positions[junction] = position;
+	}
+
+	/**
+	 * Description: Moves the junction at the position towards the leaves.
+	 */
+	private void siftDown(int position) {
+		int junction = heap[position];
+		double length = lengths[junction];
+		int half = size >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			if (child + 1 < size && lengths[heap[child + 1]] < lengths[heap[child]]) {
+				child++;
+			}
+			if (length <= lengths[heap[child]]) {
+				break;
+			}
+			heap[position] = heap[child];
+			positions[heap[position]] = position;
+			position = child;
+		}
+		heap[position] = junction;
+		positions[junction] = position;
+	}
+}
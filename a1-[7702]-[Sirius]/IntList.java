@@ -0,0 +1,69 @@
+import java.util.Arrays;
+/**
+ * Class represents a growable list of primitive ints.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class IntList {
+	/** The values of the list. */
+	private int[] values;
+	/** The number of values in the list. */
+	private int size = 0;
+
+	/**
+	 * Description: Constructor without arguments.
+	 */
+	public IntList() {
+		this(16);
+	}
+
+	/**
+	 * Description: Constructor with the initial capacity.
+	 *
+	 * @param capacity:
+	 *            The initial capacity.
+	 */
+	public IntList(int capacity) {
+		values = new int[Math.max(1, capacity)];
+	}
+
+	public void add(int value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
+		}
+		values[size++] = value;
+	}
+
+	public int get(int index) {
+		return values[index];
+	}
+
+	public void set(int index, int value) {
+		values[index] = value;
+	}
+
+	public int removeLast() {
+		return values[--size];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	public void reverse() {
+		for (int i = 0, j = size - 1; i < j; i++, j--) {
+			int value = values[i];
+			values[i] = values[j];
+			values[j] = value;
+		}
+	}
+
+	public int[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+}
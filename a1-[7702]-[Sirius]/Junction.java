@@ -12,12 +12,6 @@ public class Junction {
 	private String name;
 	/** Set of the road accessible from this junction. */
 	private Set<Road> roads = new HashSet<Road>();
-	/** The last junction in the shortest path to this road. */
-	private Junction lastJunction = null;
-	/** The length to the start point. */
-	private double lengthToRoot = 0;
-	/** The last road in the shortest path to this road. */
-	private Road lastRoad = null;
 
 	/**
 	 * Description: Constructor with one arguments.
@@ -46,30 +40,6 @@ public class Junction {
 		this.roads = roads;
 	}
 
-	public void setLengthToRoot(double lengthToRoot) {
-		this.lengthToRoot = lengthToRoot;
-	}
-
-	public double getLengthToRoot() {
-		return lengthToRoot;
-	}
-
-	public Junction getLastJunction() {
-		return lastJunction;
-	}
-
-	public void setLastJunction(Junction lastJunction) {
-		this.lastJunction = lastJunction;
-	}
-
-	public Road getLastRoad() {
-		return lastRoad;
-	}
-
-	public void setLastRoad(Road lastRoad) {
-		this.lastRoad = lastRoad;
-	}
-
 	public void addRoads(Road road) {
 		roads.add(road);
 	}
@@ -78,13 +48,6 @@ public class Junction {
 		roads.remove(road);
 	}
 
-	/* Reset the junction. */
-	public void reset() {
-		lastJunction = null;		
-		lengthToRoot = 0;	
-		lastRoad = null;
-	}
-	
 	@Override
 	public String toString() {
 		return "Junction [name=" + name + "]";
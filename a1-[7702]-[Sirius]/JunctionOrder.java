@@ -0,0 +1,266 @@
+import java.util.Arrays;
+import java.util.Random;
+/**
+ * Class renumbers the junctions and roads of a loaded {@link RoadNetwork}
+ * so that junctions joined by a road get close ids. The loaders number
+ * junctions in the order they are first read (or in hash order for
+ * {@link Graph}), which scatters the neighbours of a junction over the
+ * whole of the per-junction arrays; a search then misses the cache on
+ * nearly every arc. Orders by name:
+ * <ul>
+ * <li>"none": the ids of the loader;</li>
+ * <li>"bfs" (the default): breadth first from the lowest id of each
+ * component;</li>
+ * <li>"rcm": reverse Cuthill-McKee, breadth first from a far junction of
+ * each component, neighbours by rising degree, the whole order reversed.</li>
+ * </ul>
+ * Roads are then numbered by their lowest junction, so the road arrays
+ * follow the junctions. Names are unchanged, so output is the same.
+ *
+ * Usage: java -cp a1-[7702]-[Sirius].jar JunctionOrder environmentFile [queryCount]
+ * prints the arc gaps and Dijkstra query times of every order.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class JunctionOrder {
+	/** The name of the default order. */
+	public static final String DEFAULT_ORDER = "bfs";
+	/** The orders compared by {@link #main}. */
+	private static final String[] ORDERS = { "none", "bfs", "rcm" };
+
+	/**
+	 * Description: Constructor without arguments, never used.
+	 */
+	private JunctionOrder() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		int queryCount = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+		SearchOptions options = new SearchOptions();
+		options.setSnapshot(false);
+
+		/* The queries are picked by name, so every order answers the same ones. */
+		options.setOrder("none");
+		RoadNetwork network = Assignment.loadNetwork(args[0], options);
+		Random random = new Random(7702);
+		String[] startNames = new String[queryCount];
+		String[] endNames = new String[queryCount];
+		int[] lots = new int[queryCount * 2];
+		for (int i = 0; i < queryCount; i++) {
+			int startRoad = random.nextInt(network.getRoadCount());
+			int endRoad = random.nextInt(network.getRoadCount());
+			startNames[i] = network.getRoadName(startRoad);
+			endNames[i] = network.getRoadName(endRoad);
+			lots[i * 2] = 1 + random.nextInt(network.getRoadLots(startRoad));
+			lots[i * 2 + 1] = 1 + random.nextInt(network.getRoadLots(endRoad));
+		}
+		System.out.printf("%d junctions, %d roads, %d queries%n", network.getJunctionCount(), network.getRoadCount(),
+				queryCount);
+
+		for (String order : ORDERS) {
+			if (!order.equals("none")) {
+				options.setOrder("none");
+				network = Assignment.loadNetwork(args[0], options);
+			}
+			long start = System.nanoTime();
+			apply(network, order);
+			double orderMillis = (System.nanoTime() - start) / 1e6;
+
+			long gapSum = 0;
+			for (int junction = 0; junction < network.getJunctionCount(); junction++) {
+				for (int arc = network.firstArc(junction); arc < network.lastArc(junction); arc++) {
+					gapSum += Math.abs(network.getArcTarget(arc) - junction);
+				}
+			}
+
+			DijkstraSearch engine = new DijkstraSearch(network, SearchWorkspace.DEFAULT_QUEUE);
+			double queryMicros = 0;
+			for (int round = 0; round < 2; round++) {
+				start = System.nanoTime();
+				for (int i = 0; i < queryCount; i++) {
+					Assignment.findPath(network, engine, lots[i * 2], network.getRoadId(startNames[i]), lots[i * 2 + 1],
+							network.getRoadId(endNames[i]));
+				}
+				queryMicros = (System.nanoTime() - start) / 1e3 / queryCount;
+			}
+			System.out.printf("%-4s order %8.1f ms, mean arc gap %10.1f, dijkstra %9.1f us/query%n", order,
+					orderMillis, (double) gapSum / Math.max(1, network.getArcCount()), queryMicros);
+		}
+	}
+
+	/**
+	 * Description: Renumbers the network in the named order. It must run
+	 * before any road change and before anything is built on the ids.
+	 *
+	 * @param network:
+	 *            The road network, renumbered in place.
+	 * @param order:
+	 *            "none", "bfs" or "rcm".
+	 *
+	 * @return network:
+	 *            The same road network.
+	 */
+	public static RoadNetwork apply(RoadNetwork network, String order) {
+		int[] junctionRank;
+		if (order.equals("none")) {
+			return network;
+		} else if (order.equals("bfs")) {
+			junctionRank = rank(breadthFirst(network, false));
+		} else if (order.equals("rcm")) {
+			int[] junctions = breadthFirst(network, true);
+			for (int i = 0, j = junctions.length - 1; i < j; i++, j--) {
+				int junction = junctions[i];
+				junctions[i] = junctions[j];
+				junctions[j] = junction;
+			}
+			junctionRank = rank(junctions);
+		} else {
+			throw new IllegalArgumentException("Unknown junction order: " + order);
+		}
+		network.renumber(junctionRank, roadRank(network, junctionRank));
+		return network;
+	}
+
+	/**
+	 * Description: Lists the junctions breadth first, one component after
+	 * the other.
+	 *
+	 * @param network:
+	 *            The road network.
+	 * @param cuthillMcKee:
+	 *            Whether each component starts from a far junction of least
+	 *            degree and neighbours are taken by rising degree.
+	 *
+	 * @return junctions:
+	 *            The junctions in visiting order.
+	 */
+	private static int[] breadthFirst(RoadNetwork network, boolean cuthillMcKee) {
+		int junctionCount = network.getJunctionCount();
+		int[] junctions = new int[junctionCount];
+		boolean[] visited = new boolean[junctionCount];
+		int[] probe = cuthillMcKee ? new int[junctionCount] : null;
+		int[] probeStamps = cuthillMcKee ? new int[junctionCount] : null;
+		int[] neighbours = new int[16];
+		int tail = 0;
+		for (int root = 0; root < junctionCount; root++) {
+			if (visited[root]) {
+				continue;
+			}
+			int start = cuthillMcKee ? farJunction(network, root, probe, probeStamps, root + 1) : root;
+			int head = tail;
+			visited[start] = true;
+			junctions[tail++] = start;
+			while (head < tail) {
+				int junction = junctions[head++];
+				int count = 0;
+				for (int arc = network.firstArc(junction); arc < network.lastArc(junction); arc++) {
+					int next = network.getArcTarget(arc);
+					if (!visited[next]) {
+						visited[next] = true;
+						if (count == neighbours.length) {
+							neighbours = Arrays.copyOf(neighbours, count * 2);
+						}
+						neighbours[count++] = next;
+					}
+				}
+				if (cuthillMcKee) {
+					sortByDegree(network, neighbours, count);
+				}
+				System.arraycopy(neighbours, 0, junctions, tail, count);
+				tail += count;
+			}
+		}
+		return junctions;
+	}
+
+	/**
+	 * Description: Finds a junction of least degree among those furthest in
+	 * roads from the root, a cheap stand-in for a peripheral junction. The
+	 * queue and stamps are scratch arrays; stamp is new to the stamps.
+	 */
+	private static int farJunction(RoadNetwork network, int root, int[] queue, int[] stamps, int stamp) {
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = root;
+		stamps[root] = stamp;
+		int levelStart = 0;
+		while (head < tail) {
+			levelStart = head;
+			int levelEnd = tail;
+			while (head < levelEnd) {
+				int junction = queue[head++];
+				for (int arc = network.firstArc(junction); arc < network.lastArc(junction); arc++) {
+					int next = network.getArcTarget(arc);
+					if (stamps[next] != stamp) {
+						stamps[next] = stamp;
+						queue[tail++] = next;
+					}
+				}
+			}
+		}
+		int best = queue[levelStart];
+		for (int i = levelStart + 1; i < tail; i++) {
+			if (degree(network, queue[i]) < degree(network, best)) {
+				best = queue[i];
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Description: Sorts a few junctions by rising degree, keeping the order
+	 * of equal ones.
+	 */
+	private static void sortByDegree(RoadNetwork network, int[] junctions, int count) {
+		for (int i = 1; i < count; i++) {
+			int junction = junctions[i];
+			int degree = degree(network, junction);
+			int j = i - 1;
+			while (j >= 0 && degree(network, junctions[j]) > degree) {
+				junctions[j + 1] = junctions[j];
+				j--;
+			}
+			junctions[j + 1] = junction;
+		}
+	}
+
+	private static int degree(RoadNetwork network, int junction) {
+		return network.lastArc(junction) - network.firstArc(junction);
+	}
+
+	/**
+	 * Description: Inverts a list of junctions into the position of each.
+	 */
+	private static int[] rank(int[] junctions) {
+		int[] rank = new int[junctions.length];
+		for (int i = 0; i < junctions.length; i++) {
+			rank[junctions[i]] = i;
+		}
+		return rank;
+	}
+
+	/**
+	 * Description: Numbers the roads by the new id of their lower junction,
+	 * keeping the old order among roads of the same junction.
+	 */
+	private static int[] roadRank(RoadNetwork network, int[] junctionRank) {
+		int roadCount = network.getRoadCount();
+		int[] starts = new int[network.getJunctionCount() + 1];
+		for (int road = 0; road < roadCount; road++) {
+			starts[lowerJunction(network, junctionRank, road) + 1]++;
+		}
+		for (int junction = 0; junction + 1 < starts.length; junction++) {
+			starts[junction + 1] += starts[junction];
+		}
+		int[] rank = new int[roadCount];
+		for (int road = 0; road < roadCount; road++) {
+			rank[road] = starts[lowerJunction(network, junctionRank, road)]++;
+		}
+		return rank;
+	}
+
+	private static int lowerJunction(RoadNetwork network, int[] junctionRank, int road) {
+		return Math.min(junctionRank[network.getRoadJunction1(road)], junctionRank[network.getRoadJunction2(road)]);
+	}
+}
@@ -0,0 +1,44 @@
+/**
+ * Interface of the priority queue used by the search. Queues may keep
+ * stale entries for a junction; the search skips an entry when its length
+ * is greater than the current length to root of the junction.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public interface JunctionQueue {
+
+	/**
+	 * Description: Removes all junctions from the queue.
+	 */
+	void clear();
+
+	/**
+	 * Description: Checks whether the queue is empty.
+	 */
+	boolean isEmpty();
+
+	/**
+	 * Description: Queues the junction with the given length to root, or
+	 * lowers its length if the queue supports decrease-key.
+	 *
+	 * @param junction:
+	 *            The id of the junction.
+	 * @param length:
+	 *            The length to root of the junction.
+	 */
+	void add(int junction, double length);
+
+	/**
+	 * Description: Removes the junction with the shortest length to root.
+	 *
+	 * @return junction:
+	 *            The id of the junction.
+	 */
+	int poll();
+
+	/**
+	 * Description: Gets the length the last polled junction was queued with.
+	 */
+	double getPolledLength();
+}
@@ -0,0 +1,66 @@
+import java.util.List;
+/**
+ * Class reports how many junctions each query settles with the landmark
+ * search compared with plain Dijkstra, and the time both take.
+ *
+ * Usage: java -cp a1-[7702]-[Sirius].jar LandmarkBenchmark environmentFile queryFile [landmarks]
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class LandmarkBenchmark {
+	public static void main(String[] args) throws Exception {
+		RoadNetwork network = new Graph(args[0]).getNetwork();
+		List<Query> queries = Assignment.readQueries(args[1], network);
+		int count = args.length > 2 ? Integer.parseInt(args[2]) : Landmarks.DEFAULT_COUNT;
+
+		long start = System.nanoTime();
+		Landmarks landmarks = Landmarks.build(network, count);
+		System.out.printf("%d landmarks in %.1f ms%n", landmarks.getCount(), (System.nanoTime() - start) / 1e6);
+
+		DijkstraSearch dijkstra = new DijkstraSearch(network, SearchWorkspace.DEFAULT_QUEUE);
+		AltSearch alt = new AltSearch(network, landmarks, SearchWorkspace.DEFAULT_QUEUE);
+		long dijkstraSettled = 0;
+		long altSettled = 0;
+		long dijkstraTime = 0;
+		long altTime = 0;
+		System.out.println("query dijkstra alt");
+		for (int i = 0; i < queries.size(); i++) {
+			Query query = queries.get(i);
+			start = System.nanoTime();
+			String expected = run(network, dijkstra, query);
+			dijkstraTime += System.nanoTime() - start;
+			start = System.nanoTime();
+			String result = run(network, alt, query);
+			altTime += System.nanoTime() - start;
+			if (!lengthOf(expected).equals(lengthOf(result))) {
+				System.out.println("Length differs for " + query + ": " + expected.trim() + " / " + result.trim());
+			}
+			/* Invalid queries and queries within one road settle nothing. */
+			boolean searched = !expected.startsWith("Invalid") && query.getStartRoad() != query.getEndRoad();
+			int dijkstraCount = searched ? dijkstra.getSettledCount() : 0;
+			int altCount = searched ? alt.getSettledCount() : 0;
+			System.out.println((i + 1) + " " + dijkstraCount + " " + altCount);
+			dijkstraSettled += dijkstraCount;
+			altSettled += altCount;
+		}
+		System.out.printf("settled: dijkstra %d, alt %d (%.1f%%)%n", dijkstraSettled, altSettled,
+				dijkstraSettled == 0 ? 0 : 100.0 * altSettled / dijkstraSettled);
+		System.out.printf("time: dijkstra %.1f ms, alt %.1f ms%n", dijkstraTime / 1e6, altTime / 1e6);
+	}
+
+	/**
+	 * Description: Answers one query.
+	 */
+	private static String run(RoadNetwork network, SearchEngine engine, Query query) {
+		return Assignment.findPath(network, engine, query);
+	}
+
+	/**
+	 * Description: Gets the length part of a result line, or the whole line.
+	 */
+	private static String lengthOf(String result) {
+		int end = result.indexOf(" ; ");
+		return end == -1 ? result : result.substring(0, end);
+	}
+}
@@ -0,0 +1,172 @@
+import java.util.Arrays;
+/**
+ * Class holds the lengths from a few landmark junctions to every junction.
+ * By the triangle inequality |d(L, a) - d(L, b)| is a lower bound of the
+ * length between a and b for every landmark L, which {@link AltSearch} uses
+ * to steer the search towards the goal.
+ *
+ * Landmarks are chosen by farthest selection: each new landmark is the
+ * junction farthest from the landmarks chosen so far, so they end up on
+ * the edge of the map. A junction in a part of the map no landmark reaches
+ * counts as the farthest, so every part gets a landmark first.
+ *
+ * The table is read-only once built and is shared between threads. A road
+ * made longer or closed leaves every bound a lower bound, so only a road
+ * made shorter or reopened calls for new landmark lengths.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class Landmarks implements Preprocessing {
+	/** The default number of landmarks. */
+	public static final int DEFAULT_COUNT = 16;
+
+	/** The landmark junctions. */
+	private final int[] landmarks;
+	/** The length from landmark l to junction j at [j * count + l], infinity if unreachable. */
+	private final double[] lengths;
+	/** The version of the network the lengths were computed at. */
+	private final int buildVersion;
+
+	/**
+	 * Description: Constructor with three arguments.
+	 */
+	private Landmarks(int[] landmarks, double[] lengths, int buildVersion) {
+		this.landmarks = landmarks;
+		this.lengths = lengths;
+		this.buildVersion = buildVersion;
+	}
+
+	/**
+	 * Description: Chooses the landmarks and computes their lengths to every
+	 * junction.
+	 *
+	 * @param network:
+	 *            The road network.
+	 * @param count:
+	 *            The number of landmarks, at most the number of junctions.
+	 *
+	 * @return landmarks:
+	 *            The landmark table.
+	 */
+	public static Landmarks build(RoadNetwork network, int count) {
+		int junctionCount = network.getJunctionCount();
+		count = Math.max(0, Math.min(count, junctionCount));
+		int[] landmarks = new int[count];
+		double[] lengths = new double[junctionCount * count];
+		SearchWorkspace workspace = new SearchWorkspace(junctionCount);
+		double[] fromLandmark = new double[junctionCount];
+		/* The length from each junction to its nearest landmark so far. */
+		double[] nearest = new double[junctionCount];
+
+		/* The first landmark is the junction farthest from junction 0. */
+		if (count > 0) {
+			lengthsFrom(network, workspace, 0, nearest);
+		}
+		for (int l = 0; l < count; l++) {
+			int landmark = farthest(nearest, landmarks, l);
+			landmarks[l] = landmark;
+			lengthsFrom(network, workspace, landmark, fromLandmark);
+			for (int junction = 0; junction < junctionCount; junction++) {
+				lengths[junction * count + l] = fromLandmark[junction];
+				nearest[junction] = l == 0 ? fromLandmark[junction] : Math.min(nearest[junction], fromLandmark[junction]);
+			}
+		}
+		return new Landmarks(landmarks, lengths, network.getVersion());
+	}
+
+	/**
+	 * Description: Finds the junction with the largest length, skipping the
+	 * landmarks chosen so far. Unreachable junctions come first.
+	 */
+	private static int farthest(double[] nearest, int[] chosen, int chosenCount) {
+		int best = -1;
+		for (int junction = 0; junction < nearest.length; junction++) {
+			if (isChosen(chosen, chosenCount, junction)) {
+				continue;
+			}
+			if (best == -1 || nearest[junction] > nearest[best]) {
+				best = junction;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Description: Checks whether the junction is one of the first landmarks.
+	 */
+	private static boolean isChosen(int[] chosen, int chosenCount, int junction) {
+		for (int i = 0; i < chosenCount; i++) {
+			if (chosen[i] == junction) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Description: Computes the length from the source to every junction with
+	 * Dijkstra's algorithm over all roads.
+	 */
+	private static void lengthsFrom(RoadNetwork network, SearchWorkspace workspace, int source, double[] lengths) {
+		ShortestPathTreeSearch.growTree(network, workspace, source, null);
+		for (int junction = 0; junction < lengths.length; junction++) {
+			lengths[junction] = workspace.getLengthToRoot(junction);
+		}
+	}
+
+	/**
+	 * Description: Gets a lower bound of the length between two junctions.
+	 *
+	 * @param from:
+	 *            The id of one junction.
+	 * @param to:
+	 *            The id of the other junction.
+	 *
+	 * @return bound:
+	 *            The lower bound, infinity if no path can join them.
+	 */
+	public double lowerBound(int from, int to) {
+		int count = landmarks.length;
+		int fromBase = from * count;
+		int toBase = to * count;
+		double bound = 0;
+		for (int l = 0; l < count; l++) {
+			double a = lengths[fromBase + l];
+			double b = lengths[toBase + l];
+			if (a == b) {
+				/* Also skips landmarks neither junction can reach. */
+				continue;
+			}
+			double difference = Math.abs(a - b);
+			if (difference > bound) {
+				bound = difference;
+			}
+		}
+		return bound;
+	}
+
+	@Override
+	public boolean survivesChange(int road, boolean longer) {
+		return longer;
+	}
+
+	/* Accessors */
+	public int getCount() {
+		return landmarks.length;
+	}
+
+	public int getLandmark(int index) {
+		return landmarks[index];
+	}
+
+	@Override
+	public int getBuildVersion() {
+		return buildVersion;
+	}
+
+	@Override
+	public String toString() {
+		return "Landmarks " + Arrays.toString(landmarks);
+	}
+}
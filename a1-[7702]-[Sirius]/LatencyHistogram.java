@@ -0,0 +1,128 @@
+import java.io.PrintStream;
+/**
+ * Class counts latencies in log-linear buckets, like an HDR histogram:
+ * values below 128 ns have a bucket each, and every power of two above is
+ * split into 64 buckets, so any value is kept to within 1/64 of itself in
+ * a fixed 30 KB of counts, from nanoseconds to days.
+ *
+ * A histogram is used by one thread at a time; per-thread histograms are
+ * combined with {@link #add(LatencyHistogram)}.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class LatencyHistogram {
+	/** The number of buckets each power of two is split into. */
+	private static final int SUB_BUCKETS = 64;
+	/** The log2 of SUB_BUCKETS. */
+	private static final int SUB_BUCKET_BITS = 6;
+	/** The number of buckets covering every long value. */
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	/** The number of values in each bucket. */
+	private final long[] counts = new long[BUCKETS];
+	/** The number of values recorded. */
+	private long count;
+	/** The sum of the values recorded. */
+	private long sum;
+	/** The largest value recorded. */
+	private long max;
+
+	/**
+	 * Description: Records a value.
+	 *
+	 * @param value:
+	 *            The value, negative values are counted as 0.
+	 */
+	public void record(long value) {
+		value = Math.max(0, value);
+		counts[bucketOf(value)]++;
+		count++;
+		sum += value;
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * Description: Adds the values of another histogram to this one.
+	 *
+	 * @param other:
+	 *            The histogram to add.
+	 */
+	public void add(LatencyHistogram other) {
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			counts[bucket] += other.counts[bucket];
+		}
+		count += other.count;
+		sum += other.sum;
+		max = Math.max(max, other.max);
+	}
+
+	/**
+	 * Description: Gets the bucket of a value: the value itself below
+	 * 2 * SUB_BUCKETS, otherwise the top SUB_BUCKET_BITS + 1 bits of the
+	 * value offset by its power of two.
+	 */
+	private static int bucketOf(long value) {
+		if (value < 2 * SUB_BUCKETS) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return shift * SUB_BUCKETS + (int) (value >>> shift);
+	}
+
+	/**
+	 * Description: Gets the largest value in a bucket.
+	 */
+	private static long highestValueOf(int bucket) {
+		if (bucket < 2 * SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKETS - 1;
+		return ((long) (bucket - shift * SUB_BUCKETS + 1) << shift) - 1;
+	}
+
+	/**
+	 * Description: Gets the value at or below which the given fraction of
+	 * the values lie, to within the bucket width.
+	 *
+	 * @param fraction:
+	 *            The fraction, from 0 to 1.
+	 *
+	 * @return value:
+	 *            The highest value of the bucket reaching the fraction, 0 if
+	 *            nothing is recorded.
+	 */
+	public long getValueAt(double fraction) {
+		long rank = Math.max(1, (long) Math.ceil(fraction * count));
+		long seen = 0;
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			seen += counts[bucket];
+			if (seen >= rank) {
+				return Math.min(max, highestValueOf(bucket));
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Description: Prints the count, mean, percentiles and maximum in
+	 * microseconds, the values being nanoseconds.
+	 *
+	 * @param out:
+	 *            The stream to print to.
+	 */
+	public void print(PrintStream out) {
+		out.printf("%d queries, mean %.1f us, p50 %.1f us, p90 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n",
+				count, count == 0 ? 0 : sum / 1e3 / count, getValueAt(0.5) / 1e3, getValueAt(0.9) / 1e3,
+				getValueAt(0.99) / 1e3, getValueAt(0.999) / 1e3, max / 1e3);
+	}
+
+	/* Accessors */
+	public long getCount() {
+		return count;
+	}
+
+	public long getMax() {
+		return max;
+	}
+}
@@ -0,0 +1,79 @@
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+/**
+ * Class reports the memory taken by one map in each of its forms: the
+ * {@link Graph} of junction and road objects, the {@link RoadNetwork} with
+ * its numbers on the heap, and the same network after
+ * {@link RoadNetwork#storeOffHeap()}. Heap is measured as used after
+ * collecting garbage, memory off the heap from the "direct" buffer pool.
+ *
+ * Usage: java -cp a1-[7702]-[Sirius].jar MemoryFootprint environmentFile
+ * with a heap large enough for the graph; the direct store needs
+ * -XX:MaxDirectMemorySize of at least its numbers.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class MemoryFootprint {
+	/** The bytes of a megabyte. */
+	private static final double MB = 1024.0 * 1024.0;
+
+	/**
+	 * Description: Constructor without arguments, never used.
+	 */
+	private MemoryFootprint() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		SearchOptions options = new SearchOptions();
+		options.setSnapshot(false);
+		options.setOrder("none");
+		long baseHeap = usedHeap();
+		long baseDirect = usedDirect();
+
+		Graph graph = new Graph(args[0]);
+		long graphHeap = usedHeap() - baseHeap;
+		int junctionCount = graph.getNetwork().getJunctionCount();
+		graph = null;
+
+		RoadNetwork network = Assignment.loadNetwork(args[0], options);
+		System.out.printf("%d junctions, %d roads, %d arcs%n", network.getJunctionCount(), network.getRoadCount(),
+				network.getArcCount());
+		print("graph objects", graphHeap, 0, junctionCount);
+		print("network, heap", usedHeap() - baseHeap, usedDirect() - baseDirect, junctionCount);
+		network.storeOffHeap();
+		print("network, direct", usedHeap() - baseHeap, usedDirect() - baseDirect, junctionCount);
+		System.out.printf("numbers %.1f MB, the rest is names and their tables%n", network.getNumberBytes() / MB);
+	}
+
+	/**
+	 * Description: Prints the heap and direct memory of one form of the map.
+	 */
+	private static void print(String form, long heap, long direct, int junctionCount) {
+		System.out.printf("%-16s heap %8.1f MB, direct %8.1f MB, %7.1f bytes/junction%n", form, heap / MB,
+				direct / MB, (double) (heap + direct) / Math.max(1, junctionCount));
+	}
+
+	/**
+	 * Description: Gets the heap in use after collecting garbage a few times.
+	 */
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 4; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * Description: Gets the memory in use by direct buffers.
+	 */
+	private static long usedDirect() {
+		for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+			if (pool.getName().equals("direct")) {
+				return pool.getMemoryUsed();
+			}
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,428 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Random;
+/**
+ * Class writes synthetic environment and query files in the formats read by
+ * {@link Graph#readRoadInfo} and {@link Assignment#readQuaryInfo}, for testing the
+ * search engines at sizes the sample maps do not reach. Three topologies are
+ * made:
+ * <ul>
+ * <li>grid: junctions on a square grid, each joined to its right and lower
+ * neighbour;</li>
+ * <li>geometric: junctions at random points of a unit square, joined when
+ * closer than a radius chosen for the mean degree;</li>
+ * <li>hierarchical: a local grid with highways joining every spacing-th
+ * junction along the rows and columns, shorter than the local roads they
+ * skip.</li>
+ * </ul>
+ * The map may be split into islands, each a copy of the topology with no
+ * road to the others. Roads and junctions are kept in int lists only, so
+ * millions of junctions fit in a few hundred MB.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class NetworkGenerator {
+	/** The topology of the map: grid, geometric or hierarchical. */
+	private String topology = "grid";
+	/** The number of junctions of the whole map. */
+	private int junctionCount = 10000;
+	/** The number of queries to write. */
+	private int queryCount = 10000;
+	/** The seed of the random numbers. */
+	private long seed = 1;
+	/** The shortest local road length. */
+	private int minLength = 100;
+	/** The longest local road length. */
+	private int maxLength = 1000;
+	/** The fewest lots of a road. */
+	private int minLots = 1;
+	/** The most lots of a road. */
+	private int maxLots = 20;
+	/** The number of islands the junctions are split into. */
+	private int islands = 1;
+	/** The mean number of roads at a junction of the geometric topology. */
+	private double degree = 6;
+	/** The number of local junctions between highway junctions of the hierarchical topology. */
+	private int spacing = 16;
+	/** The most roads from the start to the goal of a query, 0 for a goal anywhere. */
+	private int locality = 0;
+	/** Whether roads are written in random order rather than the order they were made. */
+	private boolean shuffle = true;
+
+	/* The roads made so far. */
+	private final IntList roadJunction1 = new IntList();
+	private final IntList roadJunction2 = new IntList();
+	private final IntList roadLengths = new IntList();
+	private final IntList roadLots = new IntList();
+	private Random random;
+
+	/**
+	 * Description: Writes a map and its queries.
+	 *
+	 * java NetworkGenerator grid|geometric|hierarchical junctionCount
+	 * environmentFile queryFile [-queries N] [-seed S] [-length min,max]
+	 * [-lots min,max] [-islands N] [-degree D] [-spacing S] [-locality R]
+	 * [-shuffle true|false]
+	 *
+	 * @param args:
+	 *            The topology, the number of junctions, the file names and
+	 *            the options.
+	 */
+	public static void main(String[] args) throws IOException {
+		NetworkGenerator generator = parse(args, 4);
+		generator.setTopology(args[0]);
+		generator.setJunctionCount(Integer.parseInt(args[1]));
+		long start = System.nanoTime();
+		generator.generate(args[2], args[3]);
+		System.out.printf("Wrote %d roads and %d queries in %.1f s%n", generator.getRoadCount(),
+				generator.getQueryCount(), (System.nanoTime() - start) / 1e9);
+	}
+
+	/**
+	 * Description: Parses options given as "-name value" pairs.
+	 *
+	 * @param args:
+	 *            The command line arguments.
+	 * @param from:
+	 *            The index of the first option.
+	 *
+	 * @return generator:
+	 *            The generator with the options set, defaults for the ones
+	 *            not given.
+	 */
+	public static NetworkGenerator parse(String[] args, int from) {
+		NetworkGenerator generator = new NetworkGenerator();
+		for (int i = from; i < args.length; i += 2) {
+			if (i + 1 == args.length) {
+				throw new IllegalArgumentException("Missing value for " + args[i]);
+			}
+			String value = args[i + 1];
+			if (args[i].equals("-queries")) {
+				generator.setQueryCount(Integer.parseInt(value));
+			} else if (args[i].equals("-seed")) {
+				generator.setSeed(Long.parseLong(value));
+			} else if (args[i].equals("-length")) {
+				String[] range = value.split(",");
+				generator.setLengthRange(Integer.parseInt(range[0]), Integer.parseInt(range[range.length - 1]));
+			} else if (args[i].equals("-lots")) {
+				String[] range = value.split(",");
+				generator.setLotRange(Integer.parseInt(range[0]), Integer.parseInt(range[range.length - 1]));
+			} else if (args[i].equals("-islands")) {
+				generator.setIslands(Integer.parseInt(value));
+			} else if (args[i].equals("-degree")) {
+				generator.setDegree(Double.parseDouble(value));
+			} else if (args[i].equals("-spacing")) {
+				generator.setSpacing(Integer.parseInt(value));
+			} else if (args[i].equals("-locality")) {
+				generator.setLocality(Integer.parseInt(value));
+			} else if (args[i].equals("-shuffle")) {
+				generator.setShuffle(Boolean.parseBoolean(value));
+			} else {
+				throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+		return generator;
+	}
+
+	/**
+	 * Description: Makes the map and writes it and its queries.
+	 *
+	 * @param environmentFile:
+	 *            The name of the environment file to write.
+	 * @param queryFile:
+	 *            The name of the query file to write.
+	 */
+	public void generate(String environmentFile, String queryFile) throws IOException {
+		if (minLength < 1 || maxLength < minLength || minLots < 1 || maxLots < minLots || islands < 1
+				|| junctionCount < 2 * islands) {
+			throw new IllegalArgumentException("Invalid generator options");
+		}
+		random = new Random(seed);
+		roadJunction1.clear();
+		roadJunction2.clear();
+		roadLengths.clear();
+		roadLots.clear();
+		int first = 0;
+		for (int island = 0; island < islands; island++) {
+			int size = junctionCount / islands + (island < junctionCount % islands ? 1 : 0);
+			if (topology.equals("grid")) {
+				makeGrid(first, size, 0);
+			} else if (topology.equals("geometric")) {
+				makeGeometric(first, size);
+			} else if (topology.equals("hierarchical")) {
+				makeGrid(first, size, spacing);
+			} else {
+				throw new IllegalArgumentException("Unknown topology: " + topology);
+			}
+			first += size;
+		}
+		writeRoads(environmentFile);
+		writeQueries(queryFile);
+	}
+
+	/**
+	 * Description: Makes a square grid of junctions with a local road to the
+	 * right and lower neighbour of each, and highways every spacing-th row
+	 * and column if the spacing is not 0.
+	 *
+	 * @param first:
+	 *            The id of the first junction of the grid.
+	 * @param size:
+	 *            The number of junctions of the grid; the last row may be
+	 *            short.
+	 * @param spacing:
+	 *            The local junctions between highway junctions, 0 for none.
+	 */
+	private void makeGrid(int first, int size, int spacing) {
+		int width = (int) Math.ceil(Math.sqrt(size));
+		for (int junction = 0; junction < size; junction++) {
+			int x = junction % width;
+			int y = junction / width;
+			if (x + 1 < width && junction + 1 < size) {
+				addRoad(first + junction, first + junction + 1, randomLength());
+			}
+			if (junction + width < size) {
+				addRoad(first + junction, first + junction + width, randomLength());
+			}
+			if (spacing > 1 && x % spacing == 0 && y % spacing == 0) {
+				/* A highway is as long as its local roads would be at the shortest. */
+				if (x + spacing < width && junction + spacing < size) {
+					addRoad(first + junction, first + junction + spacing, spacing * minLength);
+				}
+				if (junction + spacing * width < size) {
+					addRoad(first + junction, first + junction + spacing * width, spacing * minLength);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Description: Makes a random geometric graph: junctions at random points
+	 * of the unit square, joined when closer than the radius giving the mean
+	 * degree. Pairs are found through a grid of cells as wide as the radius,
+	 * so only neighbouring cells are compared. Road lengths grow with the
+	 * distance from the shortest to the longest length.
+	 *
+	 * @param first:
+	 *            The id of the first junction.
+	 * @param size:
+	 *            The number of junctions.
+	 */
+	private void makeGeometric(int first, int size) {
+		double radius = Math.sqrt(degree / (Math.PI * size));
+		int cells = Math.max(1, (int) (1 / radius));
+		double[] xs = new double[size];
+		double[] ys = new double[size];
+		int[] cellOffsets = new int[cells * cells + 1];
+		int[] cellOf = new int[size];
+		for (int junction = 0; junction < size; junction++) {
+			xs[junction] = random.nextDouble();
+			ys[junction] = random.nextDouble();
+			cellOf[junction] = Math.min(cells - 1, (int) (ys[junction] * cells)) * cells
+					+ Math.min(cells - 1, (int) (xs[junction] * cells));
+			cellOffsets[cellOf[junction] + 1]++;
+		}
+		for (int cell = 0; cell < cells * cells; cell++) {
+			cellOffsets[cell + 1] += cellOffsets[cell];
+		}
+		int[] cellJunctions = new int[size];
+		int[] next = cellOffsets.clone();
+		for (int junction = 0; junction < size; junction++) {
+			cellJunctions[next[cellOf[junction]]++] = junction;
+		}
+
+		for (int junction = 0; junction < size; junction++) {
+			int cellX = cellOf[junction] % cells;
+			int cellY = cellOf[junction] / cells;
+			for (int y = Math.max(0, cellY - 1); y <= Math.min(cells - 1, cellY + 1); y++) {
+				for (int x = Math.max(0, cellX - 1); x <= Math.min(cells - 1, cellX + 1); x++) {
+					int cell = y * cells + x;
+					for (int i = cellOffsets[cell]; i < cellOffsets[cell + 1]; i++) {
+						int other = cellJunctions[i];
+						if (other <= junction) {
+							continue;
+						}
+						double distance = Math.hypot(xs[junction] - xs[other], ys[junction] - ys[other]);
+						if (distance < radius) {
+							addRoad(first + junction, first + other,
+									minLength + (int) Math.round((maxLength - minLength) * distance / radius));
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Description: Adds a road with a random number of lots.
+	 */
+	private void addRoad(int junction1, int junction2, int length) {
+		roadJunction1.add(junction1);
+		roadJunction2.add(junction2);
+		roadLengths.add(length);
+		roadLots.add(minLots + random.nextInt(maxLots - minLots + 1));
+	}
+
+	private int randomLength() {
+		return minLength + random.nextInt(maxLength - minLength + 1);
+	}
+
+	/**
+	 * Description: Writes the roads, one "road ; junction ; junction ;
+	 * length ; lots" line each.
+	 *
+	 * @param environmentFile:
+	 *            The name of the file to write.
+	 */
+	private void writeRoads(String environmentFile) throws IOException {
+		int roadCount = roadJunction1.size();
+		int[] order = new int[roadCount];
+		for (int i = 0; i < roadCount; i++) {
+			order[i] = i;
+		}
+		if (shuffle) {
+			for (int i = roadCount - 1; i > 0; i--) {
+				int j = random.nextInt(i + 1);
+				int road = order[i];
+				order[i] = order[j];
+				order[j] = road;
+			}
+		}
+		StringBuilder line = new StringBuilder(64);
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(environmentFile), 1 << 16)) {
+			for (int road : order) {
+				line.setLength(0);
+				line.append('R').append(road).append(" ; J").append(roadJunction1.get(road)).append(" ; J")
+						.append(roadJunction2.get(road)).append(" ; ").append(roadLengths.get(road)).append(" ; ")
+						.append(roadLots.get(road)).append('\n');
+				writer.append(line);
+			}
+		}
+	}
+
+	/**
+	 * Description: Writes the queries, one "lot road ; lot road" line each.
+	 * The start road is picked at random; the goal road too if the locality
+	 * is 0, otherwise it is reached by a random walk of up to locality roads
+	 * from the start road.
+	 *
+	 * @param queryFile:
+	 *            The name of the file to write.
+	 */
+	private void writeQueries(String queryFile) throws IOException {
+		int roadCount = roadJunction1.size();
+		if (roadCount == 0) {
+			throw new IllegalArgumentException("The map has no roads");
+		}
+
+		/* The roads at each junction, for the random walks. */
+		int[] offsets = null;
+		int[] junctionRoads = null;
+		if (locality > 0) {
+			offsets = new int[junctionCount + 1];
+			for (int road = 0; road < roadCount; road++) {
+				offsets[roadJunction1.get(road) + 1]++;
+				offsets[roadJunction2.get(road) + 1]++;
+			}
+			for (int junction = 0; junction < junctionCount; junction++) {
+				offsets[junction + 1] += offsets[junction];
+			}
+			junctionRoads = new int[2 * roadCount];
+			int[] next = offsets.clone();
+			for (int road = 0; road < roadCount; road++) {
+				junctionRoads[next[roadJunction1.get(road)]++] = road;
+				junctionRoads[next[roadJunction2.get(road)]++] = road;
+			}
+		}
+
+		StringBuilder line = new StringBuilder(64);
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(queryFile), 1 << 16)) {
+			for (int i = 0; i < queryCount; i++) {
+				int startRoad = random.nextInt(roadCount);
+				int endRoad = random.nextInt(roadCount);
+				if (locality > 0) {
+					endRoad = startRoad;
+					int junction = random.nextBoolean() ? roadJunction1.get(startRoad) : roadJunction2.get(startRoad);
+					for (int step = random.nextInt(locality); step > 0; step--) {
+						endRoad = junctionRoads[offsets[junction]
+								+ random.nextInt(offsets[junction + 1] - offsets[junction])];
+						junction = roadJunction1.get(endRoad) == junction ? roadJunction2.get(endRoad)
+								: roadJunction1.get(endRoad);
+					}
+				}
+				line.setLength(0);
+				line.append(1 + random.nextInt(roadLots.get(startRoad))).append('R').append(startRoad).append(" ; ")
+						.append(1 + random.nextInt(roadLots.get(endRoad))).append('R').append(endRoad).append('\n');
+				writer.append(line);
+			}
+		}
+	}
+
+	/* Accessors and Mutators */
+	public String getTopology() {
+		return topology;
+	}
+
+	public void setTopology(String topology) {
+		this.topology = topology;
+	}
+
+	public int getJunctionCount() {
+		return junctionCount;
+	}
+
+	public void setJunctionCount(int junctionCount) {
+		this.junctionCount = junctionCount;
+	}
+
+	public int getQueryCount() {
+		return queryCount;
+	}
+
+	public void setQueryCount(int queryCount) {
+		this.queryCount = queryCount;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public void setLengthRange(int minLength, int maxLength) {
+		this.minLength = minLength;
+		this.maxLength = maxLength;
+	}
+
+	public void setLotRange(int minLots, int maxLots) {
+		this.minLots = minLots;
+		this.maxLots = maxLots;
+	}
+
+	public void setIslands(int islands) {
+		this.islands = islands;
+	}
+
+	public void setDegree(double degree) {
+		this.degree = degree;
+	}
+
+	public void setSpacing(int spacing) {
+		this.spacing = spacing;
+	}
+
+	public void setLocality(int locality) {
+		this.locality = locality;
+	}
+
+	public void setShuffle(boolean shuffle) {
+		this.shuffle = shuffle;
+	}
+
+	/**
+	 * Description: Gets the number of roads of the last map made.
+	 */
+	public int getRoadCount() {
+		return roadJunction1.size();
+	}
+}
@@ -0,0 +1,215 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+/**
+ * Class writes and reads a binary snapshot of a {@link RoadNetwork}, so a
+ * run can skip parsing the text environment file. The snapshot holds the
+ * name tables as UTF-8, the road arrays and the CSR offsets and arc roads,
+ * all as big endian ints; the target and length of an arc are filled in
+ * from its road on loading. It is read back through a read-only mapping
+ * with bulk copies. Ids are kept, so a contraction hierarchy built on the
+ * network still fits the snapshot.
+ *
+ * {@link Assignment} uses the snapshot next to the environment file (the
+ * file name plus {@value #SUFFIX}) when it is newer than the text file.
+ *
+ * Usage: java -cp a1-[7702]-[Sirius].jar NetworkSnapshot environmentFile [snapshotFile]
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class NetworkSnapshot {
+	/** The suffix of the default snapshot file name. */
+	public static final String SUFFIX = ".snapshot";
+	/** The first int of a snapshot file. */
+	private static final int MAGIC = 0x524e3031;
+
+	public static void main(String[] args) throws Exception {
+		SearchOptions options = new SearchOptions();
+		options.setSnapshot(false);
+		RoadNetwork network = Assignment.loadNetwork(args[0], options);
+		String snapshotFile = args.length > 1 ? args[1] : snapshotFile(args[0]);
+		write(network, snapshotFile);
+		System.out.printf("Wrote %d junctions and %d roads to %s (%d bytes)%n", network.getJunctionCount(),
+				network.getRoadCount(), snapshotFile, new File(snapshotFile).length());
+	}
+
+	/**
+	 * Description: Gets the default snapshot file of an environment file.
+	 *
+	 * @param environmentFile:
+	 *            The name of the environment file.
+	 */
+	public static String snapshotFile(String environmentFile) {
+		return environmentFile + SUFFIX;
+	}
+
+	/**
+	 * Description: Checks whether the snapshot file exists and is newer than
+	 * the environment file.
+	 *
+	 * @param environmentFile:
+	 *            The name of the environment file.
+	 * @param snapshotFile:
+	 *            The name of the snapshot file.
+	 */
+	public static boolean isFresh(String environmentFile, String snapshotFile) {
+		File snapshot = new File(snapshotFile);
+		return snapshot.isFile() && snapshot.lastModified() > new File(environmentFile).lastModified();
+	}
+
+	/**
+	 * Description: Writes the snapshot of the road network.
+	 *
+	 * @param network:
+	 *            The road network.
+	 * @param fileName:
+	 *            The name of the snapshot file.
+	 */
+	public static void write(RoadNetwork network, String fileName) throws IOException {
+		int junctionCount = network.getJunctionCount();
+		int roadCount = network.getRoadCount();
+		int arcCount = network.getArcCount();
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16));
+		try {
+			output.writeInt(MAGIC);
+			output.writeInt(junctionCount);
+			output.writeInt(roadCount);
+			output.writeInt(arcCount);
+			String[] junctionNames = new String[junctionCount];
+			for (int junction = 0; junction < junctionCount; junction++) {
+				junctionNames[junction] = network.getJunctionName(junction);
+			}
+			writeNames(output, junctionNames);
+			String[] roadNames = new String[roadCount];
+			for (int road = 0; road < roadCount; road++) {
+				roadNames[road] = network.getRoadName(road);
+			}
+			writeNames(output, roadNames);
+			for (int road = 0; road < roadCount; road++) {
+				output.writeInt(network.getRoadJunction1(road));
+			}
+			for (int road = 0; road < roadCount; road++) {
+				output.writeInt(network.getRoadJunction2(road));
+			}
+			for (int road = 0; road < roadCount; road++) {
+				output.writeInt(network.getRoadLength(road));
+			}
+			for (int road = 0; road < roadCount; road++) {
+				output.writeInt(network.getRoadLots(road));
+			}
+			for (int junction = 0; junction < junctionCount; junction++) {
+				output.writeInt(network.firstArc(junction));
+			}
+			output.writeInt(arcCount);
+			for (int arc = 0; arc < arcCount; arc++) {
+				output.writeInt(network.getArcRoad(arc));
+			}
+		} finally {
+			output.close();
+		}
+	}
+
+	/**
+	 * Description: Reads a snapshot written by {@link #write}.
+	 *
+	 * @param fileName:
+	 *            The name of the snapshot file.
+	 *
+	 * @return network:
+	 *            The road network.
+	 */
+	public static RoadNetwork load(String fileName) throws IOException {
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Snapshot file too large to map: " + fileName);
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		IntBuffer ints = buffer.asIntBuffer();
+		if (ints.remaining() < 4 || ints.get() != MAGIC) {
+			throw new IOException("Not a road network snapshot: " + fileName);
+		}
+		int junctionCount = ints.get();
+		int roadCount = ints.get();
+		int arcCount = ints.get();
+		String[] junctionNames = readNames(buffer, ints, junctionCount);
+		String[] roadNames = readNames(buffer, ints, roadCount);
+		int[] roadJunction1 = readInts(ints, roadCount);
+		int[] roadJunction2 = readInts(ints, roadCount);
+		int[] roadLengths = readInts(ints, roadCount);
+		int[] roadLots = readInts(ints, roadCount);
+		int[] offsets = readInts(ints, junctionCount + 1);
+		int[] arcRoads = readInts(ints, arcCount);
+		/* The target and length of each arc follow from its road. */
+		int[] targets = new int[arcCount];
+		int[] lengths = new int[arcCount];
+		for (int junction = 0; junction < junctionCount; junction++) {
+			for (int arc = offsets[junction]; arc < offsets[junction + 1]; arc++) {
+				int road = arcRoads[arc];
+				targets[arc] = roadJunction1[road] == junction ? roadJunction2[road] : roadJunction1[road];
+				lengths[arc] = roadLengths[road];
+			}
+		}
+		return new RoadNetwork(junctionNames, roadNames, roadJunction1, roadJunction2, roadLengths, roadLots,
+				offsets, targets, arcRoads, lengths);
+	}
+
+	/**
+	 * Description: Writes the end of each name in the UTF-8 bytes, the number
+	 * of bytes and the bytes padded to a whole int.
+	 */
+	private static void writeNames(DataOutputStream output, String[] names) throws IOException {
+		byte[][] encoded = new byte[names.length][];
+		int end = 0;
+		for (int i = 0; i < names.length; i++) {
+			encoded[i] = names[i].getBytes(StandardCharsets.UTF_8);
+			end += encoded[i].length;
+			output.writeInt(end);
+		}
+		output.writeInt(end);
+		for (byte[] name : encoded) {
+			output.write(name);
+		}
+		for (int i = end; i % 4 != 0; i++) {
+			output.writeByte(0);
+		}
+	}
+
+	/**
+	 * Description: Reads names written by {@link #writeNames}, leaving the
+	 * int view after the padding.
+	 */
+	private static String[] readNames(ByteBuffer buffer, IntBuffer ints, int count) {
+		int[] ends = readInts(ints, count);
+		int size = ints.get();
+		byte[] bytes = new byte[size];
+		buffer.get(ints.position() * 4, bytes);
+		ints.position(ints.position() + (size + 3) / 4);
+		String[] names = new String[count];
+		int start = 0;
+		for (int i = 0; i < count; i++) {
+			names[i] = new String(bytes, start, ends[i] - start, StandardCharsets.UTF_8);
+			start = ends[i];
+		}
+		return names;
+	}
+
+	/**
+	 * Description: Reads the next ints of the snapshot.
+	 */
+	private static int[] readInts(IntBuffer ints, int count) {
+		int[] values = new int[count];
+		ints.get(values);
+		return values;
+	}
+}
@@ -0,0 +1,162 @@
+/**
+ * Class holds the path found by a search as primitive arrays and writes
+ * the output line from them in one pass. The path is the start road, the
+ * first junction, then each further road with the junction it leads to,
+ * and at last the goal road. An engine reuses one builder for all of its
+ * queries.
+ *
+ * The length is summed from the start lot in path order, the same order
+ * in which {@link DijkstraSearch} adds it up, so every engine prints the
+ * same length for the same path.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class PathBuilder {
+	/** The road network of the path. */
+	private final RoadNetwork network;
+	/** The road leading to each junction of the path; the first is the start road. */
+	private final IntList roads = new IntList();
+	/** The junctions of the path in order. */
+	private final IntList junctions = new IntList();
+	/** The text of the output line, reused between queries. */
+	private final StringBuilder text = new StringBuilder();
+	/** The goal road. */
+	private int endRoad = -1;
+	/** The length of the path from the start lot to the goal lot. */
+	private double length;
+
+	/**
+	 * Description: Constructor with one argument.
+	 *
+	 * @param network:
+	 *            The road network of the paths.
+	 */
+	public PathBuilder(RoadNetwork network) {
+		this.network = network;
+	}
+
+	/**
+	 * Description: Starts a new path.
+	 *
+	 * @param startRoad:
+	 *            The id of the start road.
+	 * @param junction:
+	 *            The id of the first junction.
+	 */
+	public void begin(int startRoad, int junction) {
+		roads.clear();
+		junctions.clear();
+		add(startRoad, junction);
+	}
+
+	/**
+	 * Description: Appends a road and the junction it leads to.
+	 *
+	 * @param road:
+	 *            The id of the road.
+	 * @param junction:
+	 *            The id of the junction.
+	 */
+	public void add(int road, int junction) {
+		roads.add(road);
+		junctions.add(junction);
+	}
+
+	/**
+	 * Description: Starts a new path with the junctions of a search tree,
+	 * walking back from the junction to its root and reversing the walk.
+	 *
+	 * @param workspace:
+	 *            The search state holding the tree.
+	 * @param junction:
+	 *            The id of the last junction of the walk.
+	 * @param startRoad:
+	 *            The id of the start road, which leads to the root.
+	 */
+	public void walkBack(SearchWorkspace workspace, int junction, int startRoad) {
+		roads.clear();
+		junctions.clear();
+		for (; junction != -1; junction = workspace.getLastJunction(junction)) {
+			roads.add(workspace.getLastRoad(junction));
+			junctions.add(junction);
+		}
+		roads.reverse();
+		junctions.reverse();
+		roads.set(0, startRoad);
+	}
+
+	/**
+	 * Description: Ends the path at the goal lot and sums its length.
+	 *
+	 * @param startLotNumber:
+	 *            The lot number on the start road.
+	 * @param endRoad:
+	 *            The id of the goal road.
+	 * @param endLotNumber:
+	 *            The lot number on the goal road.
+	 */
+	public void finish(int startLotNumber, int endRoad, int endLotNumber) {
+		this.endRoad = endRoad;
+		length = network.lengthToLot(roads.get(0), junctions.get(0), startLotNumber);
+		for (int i = 1; i < roads.size(); i++) {
+			length += network.getRoadLength(roads.get(i));
+		}
+		length += network.lengthToLot(endRoad, junctions.get(junctions.size() - 1), endLotNumber);
+	}
+
+	/**
+	 * Description: Writes the output line of the finished path.
+	 *
+	 * @return result:
+	 *            The length, " ; " and the roads and junctions joined by "-".
+	 */
+	public String format() {
+		text.setLength(0);
+		text.append(length).append(" ; ");
+		for (int i = 0; i < roads.size(); i++) {
+			text.append(network.getRoadName(roads.get(i))).append('-')
+					.append(network.getJunctionName(junctions.get(i))).append('-');
+		}
+		text.append(network.getRoadName(endRoad)).append('\n');
+		return text.toString();
+	}
+
+	/**
+	 * Description: Gets the finished path as ids without any text.
+	 *
+	 * @return path:
+	 *            The start road, then junction and road ids alternating,
+	 *            ending with the goal road.
+	 */
+	public int[] toArray() {
+		int[] path = new int[roads.size() * 2 + 1];
+		for (int i = 0; i < roads.size(); i++) {
+			path[i * 2] = roads.get(i);
+			path[i * 2 + 1] = junctions.get(i);
+		}
+		path[path.length - 1] = endRoad;
+		return path;
+	}
+
+	/* Accessors */
+	public double getLength() {
+		return length;
+	}
+
+	public int getJunctionCount() {
+		return junctions.size();
+	}
+
+	public int getJunction(int index) {
+		return junctions.get(index);
+	}
+
+	public int getRoad(int index) {
+		return roads.get(index);
+	}
+
+	public int getEndRoad() {
+		return endRoad;
+	}
+}
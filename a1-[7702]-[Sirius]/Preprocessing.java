@@ -0,0 +1,88 @@
+import java.util.HashMap;
+import java.util.Map;
+/**
+ * Interface of data precomputed from the road network, such as landmark
+ * lengths or a contraction hierarchy. When roads change it tells whether
+ * each change leaves its answers exact, so only the preprocessing a change
+ * affects has to be given up.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public interface Preprocessing {
+
+	/**
+	 * Description: Gets the version of the network the data was built from.
+	 *
+	 * @return version:
+	 *            The value of {@link RoadNetwork#getVersion()} at the build.
+	 */
+	int getBuildVersion();
+
+	/**
+	 * Description: Checks whether the data stays exact after a change to a
+	 * road.
+	 *
+	 * @param road:
+	 *            The id of the changed road.
+	 * @param longer:
+	 *            Whether the road was made longer or closed.
+	 *
+	 * @return survives:
+	 *            True if the answers are still exact.
+	 */
+	boolean survivesChange(int road, boolean longer);
+
+	/**
+	 * Description: Checks the changes of the versions after a given one.
+	 *
+	 * @param network:
+	 *            The changed road network.
+	 * @param version:
+	 *            The last version already checked.
+	 *
+	 * @return valid:
+	 *            True if every later change leaves the answers exact.
+	 */
+	default boolean survivesChanges(RoadNetwork network, int version) {
+		for (int next = version + 1; next <= network.getVersion(); next++) {
+			if (!survivesChange(network.getChangedRoad(next), network.isLonger(next))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Description: Checks the net change of every road changed since the
+	 * build, against its state at the build. A road closed and reopened, or
+	 * set back to its old length, has no net change, so the data is exact
+	 * again once the roads that affected it are back as they were.
+	 *
+	 * @param network:
+	 *            The changed road network.
+	 *
+	 * @return valid:
+	 *            True if the net changes leave the answers exact.
+	 */
+	default boolean survivesNetChanges(RoadNetwork network) {
+		/* The length of each changed road at the build, -1 if it was closed. */
+		Map<Integer, Integer> buildLengths = new HashMap<Integer, Integer>();
+		for (int version = getBuildVersion() + 1; version <= network.getVersion(); version++) {
+			buildLengths.putIfAbsent(network.getChangedRoad(version), network.getPreviousLength(version));
+		}
+		for (Map.Entry<Integer, Integer> entry : buildLengths.entrySet()) {
+			int road = entry.getKey();
+			int buildLength = entry.getValue();
+			int length = network.isRoadClosed(road) ? -1 : network.getRoadLength(road);
+			if (length == buildLength) {
+				continue;
+			}
+			boolean longer = length == -1 || buildLength != -1 && length > buildLength;
+			if (!survivesChange(road, longer)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,41 @@
+import java.util.PriorityQueue;
+/**
+ * Class wraps {@link PriorityQueue} of boxed {@link QueueEntry} objects. A
+ * junction is queued again whenever a shorter path is found.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class PriorityJunctionQueue implements JunctionQueue {
+	/** The queue of entries. */
+	private final PriorityQueue<QueueEntry> queue = new PriorityQueue<QueueEntry>(50);
+	/** The length of the last polled entry. */
+	private double polledLength;
+
+	@Override
+	public void clear() {
+		queue.clear();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return queue.isEmpty();
+	}
+
+	@Override
+	public void add(int junction, double length) {
+		queue.add(new QueueEntry(junction, length));
+	}
+
+	@Override
+	public int poll() {
+		QueueEntry entry = queue.poll();
+		polledLength = entry.getLengthToRoot();
+		return entry.getJunction();
+	}
+
+	@Override
+	public double getPolledLength() {
+		return polledLength;
+	}
+}
@@ -0,0 +1,62 @@
+/**
+ * Class represents one line of the query file with the road names resolved
+ * to road ids.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class Query {
+	/** The query of a line that cannot be parsed, answered "Invalid query". */
+	public static final Query INVALID = new Query(0, -1, 0, -1);
+
+	/** The lot number on the start road. */
+	private final int startLotNumber;
+	/** The id of the start road, or -1 if the name is unknown. */
+	private final int startRoad;
+	/** The lot number on the goal road. */
+	private final int endLotNumber;
+	/** The id of the goal road, or -1 if the name is unknown. */
+	private final int endRoad;
+
+	/**
+	 * Description: Constructor with four arguments.
+	 *
+	 * @param startLotNumber:
+	 *            The lot number on the start road.
+	 * @param startRoad:
+	 *            The id of the start road, or -1 if the name is unknown.
+	 * @param endLotNumber:
+	 *            The lot number on the goal road.
+	 * @param endRoad:
+	 *            The id of the goal road, or -1 if the name is unknown.
+	 */
+	public Query(int startLotNumber, int startRoad, int endLotNumber, int endRoad) {
+		this.startLotNumber = startLotNumber;
+		this.startRoad = startRoad;
+		this.endLotNumber = endLotNumber;
+		this.endRoad = endRoad;
+	}
+
+	/* Accessors */
+	public int getStartLotNumber() {
+		return startLotNumber;
+	}
+
+	public int getStartRoad() {
+		return startRoad;
+	}
+
+	public int getEndLotNumber() {
+		return endLotNumber;
+	}
+
+	public int getEndRoad() {
+		return endRoad;
+	}
+
+	@Override
+	public String toString() {
+		return "Query [startLotNumber=" + startLotNumber + ", startRoad=" + startRoad + ", endLotNumber="
+				+ endLotNumber + ", endRoad=" + endRoad + "]";
+	}
+}
@@ -0,0 +1,39 @@
+import java.util.List;
+/**
+ * Class plans the order in which a batch of queries is answered. Queries
+ * on the same start road are put next to each other, in file order within
+ * the group, so that {@link ShortestPathTreeSearch} grows one tree per
+ * group. Results are still written in file order.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class QueryPlanner {
+	/**
+	 * Description: Orders the queries by start road with a counting sort.
+	 * Queries with an unknown start road come first.
+	 *
+	 * @param queries:
+	 *            The queries in file order.
+	 * @param roadCount:
+	 *            The number of roads in the road network.
+	 *
+	 * @return order:
+	 *            The indexes of the queries in the order to answer them.
+	 */
+	public static int[] groupByStartRoad(List<Query> queries, int roadCount) {
+		/* Slot 0 is for unknown roads, slot road + 1 for each road. */
+		int[] starts = new int[roadCount + 2];
+		for (Query query : queries) {
+			starts[query.getStartRoad() + 2]++;
+		}
+		for (int i = 1; i < starts.length; i++) {
+			starts[i] += starts[i - 1];
+		}
+		int[] order = new int[queries.size()];
+		for (int i = 0; i < queries.size(); i++) {
+			order[starts[queries.get(i).getStartRoad() + 1]++] = i;
+		}
+		return order;
+	}
+}
@@ -0,0 +1,184 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+/**
+ * Class reads queries from the query file without regular expressions or
+ * intermediate strings. Lines are scanned in a char buffer: each of the two
+ * fields is trimmed, its leading digits are the lot number and the rest is
+ * the road name, which is looked up straight from the buffer. Road names
+ * may contain digits after the first letter. Blank lines are skipped; a
+ * line whose lot numbers cannot be read gives {@link Query#INVALID}, so the
+ * rest of the file is still answered.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class QueryScanner {
+	/** The source of the chars. */
+	private final Reader reader;
+	/** The road network used to resolve road names. */
+	private final RoadNetwork network;
+	/** The chars read but not scanned yet are [position, limit). */
+	private char[] buffer = new char[1 << 16];
+	/** The next char to scan. */
+	private int position = 0;
+	/** The end of the chars read. */
+	private int limit = 0;
+	/** Whether the reader has no more chars. */
+	private boolean ended = false;
+
+	/**
+	 * Description: Constructor with two arguments.
+	 *
+	 * @param reader:
+	 *            The source of the query lines.
+	 * @param network:
+	 *            The road network used to resolve road names.
+	 */
+	public QueryScanner(Reader reader, RoadNetwork network) {
+		this.reader = reader;
+		this.network = network;
+	}
+
+	/**
+	 * Description: Reads the next query.
+	 *
+	 * @return query:
+	 *            The next query, {@link Query#INVALID} for a line that
+	 *            cannot be parsed, or null at the end of the input.
+	 */
+	public Query next() throws IOException {
+		while (true) {
+			int end = position;
+			while (end < limit && buffer[end] != '\n' && buffer[end] != '\r') {
+				end++;
+			}
+			if (end == limit && !ended) {
+				fill();
+				continue;
+			}
+			if (end == position) {
+				if (end == limit) {
+					return null;
+				}
+				/* The end of a line, or a blank line. */
+				position++;
+				continue;
+			}
+			int start = position;
+			position = end;
+			if (!isBlank(buffer, start, end)) {
+				try {
+					return parse(buffer, start, end, network);
+				} catch (NumberFormatException ex) {
+					return Query.INVALID;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Description: Keeps the chars not scanned yet and reads more after them.
+	 */
+	private void fill() throws IOException {
+		int remaining = limit - position;
+		if (remaining == buffer.length) {
+			buffer = Arrays.copyOf(buffer, buffer.length * 2);
+		} else {
+			System.arraycopy(buffer, position, buffer, 0, remaining);
+		}
+		position = 0;
+		limit = remaining;
+		int read = reader.read(buffer, limit, buffer.length - limit);
+		if (read == -1) {
+			ended = true;
+		} else {
+			limit += read;
+		}
+	}
+
+	/**
+	 * Description: Parses one query line.
+	 *
+	 * @param chars:
+	 *            The chars holding the line.
+	 * @param start:
+	 *            The index of the first char of the line.
+	 * @param end:
+	 *            The index after the last char of the line.
+	 * @param network:
+	 *            The road network used to resolve road names.
+	 *
+	 * @return query:
+	 *            The query, with -1 for road names not in the network.
+	 */
+	public static Query parse(char[] chars, int start, int end, RoadNetwork network) {
+		int separator = start;
+		while (separator < end && chars[separator] != ';') {
+			separator++;
+		}
+		/* A line without a goal field has an unknown goal road. */
+		int startLotNumber = lotNumber(chars, start, separator);
+		int startRoad = road(chars, start, separator, network);
+		if (separator == end) {
+			return new Query(startLotNumber, startRoad, 0, -1);
+		}
+		int next = separator + 1;
+		while (next < end && chars[next] != ';') {
+			next++;
+		}
+		return new Query(startLotNumber, startRoad, lotNumber(chars, separator + 1, next),
+				road(chars, separator + 1, next, network));
+	}
+
+	/**
+	 * Description: Reads the lot number at the start of a field.
+	 */
+	private static int lotNumber(char[] chars, int start, int end) {
+		start = trimStart(chars, start, end);
+		long lotNumber = 0;
+		int i = start;
+		while (i < end && chars[i] >= '0' && chars[i] <= '9') {
+			lotNumber = lotNumber * 10 + (chars[i] - '0');
+			if (lotNumber > Integer.MAX_VALUE) {
+				throw new NumberFormatException("Lot number too large: " + new String(chars, start, end - start));
+			}
+			i++;
+		}
+		if (i == start) {
+			throw new NumberFormatException("No lot number: " + new String(chars, start, end - start));
+		}
+		return (int) lotNumber;
+	}
+
+	/**
+	 * Description: Looks up the road named after the lot number of a field.
+	 */
+	private static int road(char[] chars, int start, int end, RoadNetwork network) {
+		start = trimStart(chars, start, end);
+		while (end > start && chars[end - 1] <= ' ') {
+			end--;
+		}
+		while (start < end && chars[start] >= '0' && chars[start] <= '9') {
+			start++;
+		}
+		return network.getRoadId(chars, start, end);
+	}
+
+	/**
+	 * Description: Skips the whitespace at the start of a field.
+	 */
+	private static int trimStart(char[] chars, int start, int end) {
+		while (start < end && chars[start] <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	/**
+	 * Description: Checks whether the chars are all whitespace.
+	 */
+	private static boolean isBlank(char[] chars, int start, int end) {
+		return trimStart(chars, start, end) == end;
+	}
+}
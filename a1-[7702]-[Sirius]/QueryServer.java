@@ -0,0 +1,199 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+/**
+ * Class keeps one road network loaded and answers query lines as they
+ * arrive, so the map is loaded and the JIT warmed up once for many query
+ * files. Each line in the query file format gets the line
+ * {@link Assignment#findPath} gives for it; a line that cannot be parsed
+ * gets "Invalid query". Blank lines are skipped, so a query file gets the
+ * same lines as the output file of {@link Assignment}.
+ *
+ * The address is a TCP port on the loopback interface, the path of a Unix
+ * domain socket, or "-" to answer standard input on standard output. Every
+ * connection is served on its own thread of a cached pool, each thread
+ * with its own search engine; lines of one connection are answered in
+ * order.
+ *
+ * Lines of the form "close road", "open road" and "length road newLength"
+ * change the network in place and get "ok". A change waits for the queries
+ * in progress and queries wait for it; see {@link RoadNetwork#closeRoad}.
+ *
+ * Usage: java -cp a1-[7702]-[Sirius].jar QueryServer environmentFile port|socketPath|- [options]
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class QueryServer {
+	/** The road network to search. */
+	private final RoadNetwork network;
+	/** The search engine of each thread. */
+	private final ThreadLocal<SearchEngine> engines;
+	/** Held shared by queries and exclusively by road changes. */
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * Description: Constructor with two arguments.
+	 *
+	 * @param network:
+	 *            The road network to search.
+	 * @param engines:
+	 *            Creates the search engine of each thread.
+	 */
+	public QueryServer(RoadNetwork network, Supplier<SearchEngine> engines) {
+		this.network = network;
+		this.engines = ThreadLocal.withInitial(engines);
+	}
+
+	public static void main(String[] args) throws Exception {
+		SearchOptions options = SearchOptions.parse(args, 2);
+		RoadNetwork network = Assignment.loadNetwork(args[0], options);
+		Supplier<SearchEngine> engines = Assignment.createEngines(network, options);
+		ResultCache cache = Assignment.createCache(network, options);
+		QueryServer server = new QueryServer(network, cache == null ? engines : cache.wrap(engines));
+		String address = args[1];
+		if (address.equals("-")) {
+			server.serve(new BufferedReader(new InputStreamReader(System.in)),
+					new BufferedWriter(new OutputStreamWriter(System.out)));
+		} else if (address.matches("\\d+")) {
+			ServerSocketChannel channel = ServerSocketChannel.open();
+			channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address)));
+			server.listen(channel);
+		} else {
+			Path path = Paths.get(address);
+			Files.deleteIfExists(path);
+			ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+			channel.bind(UnixDomainSocketAddress.of(path));
+			server.listen(channel);
+		}
+	}
+
+	/**
+	 * Description: Accepts connections until the channel is closed, serving
+	 * each on a thread of its own.
+	 *
+	 * @param channel:
+	 *            The bound server channel.
+	 */
+	public void listen(ServerSocketChannel channel) throws IOException {
+		ExecutorService pool = Executors.newCachedThreadPool();
+		try {
+			while (channel.isOpen()) {
+				final SocketChannel client = channel.accept();
+				pool.submit(() -> {
+					try (SocketChannel connection = client) {
+						serve(new BufferedReader(new InputStreamReader(Channels.newInputStream(connection))),
+								new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(connection))));
+					} catch (IOException ex) {
+						ex.printStackTrace();
+					}
+				});
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Description: Answers every line of the input until it ends. The output
+	 * is flushed whenever no more input is waiting, so a client sending one
+	 * line at a time gets each answer at once.
+	 *
+	 * @param input:
+	 *            The query lines.
+	 * @param output:
+	 *            Receives the result lines.
+	 */
+	public void serve(BufferedReader input, Writer output) throws IOException {
+		String line;
+		while ((line = input.readLine()) != null) {
+			/* Blank lines get no answer, as the batch skips them too. */
+			if (!line.trim().isEmpty()) {
+				output.write(answer(line));
+			}
+			if (!input.ready()) {
+				output.flush();
+			}
+		}
+		output.flush();
+	}
+
+	/**
+	 * Description: Answers one query line with the engine of the current
+	 * thread.
+	 *
+	 * @param line:
+	 *            The query line.
+	 *
+	 * @return result:
+	 *            The result line.
+	 */
+	public String answer(String line) {
+		if (line.indexOf(';') < 0) {
+			return update(line.trim().split("\\s+"));
+		}
+		Query query;
+		try {
+			query = Assignment.parseQuery(line, network);
+		} catch (RuntimeException ex) {
+			return "Invalid query\n";
+		}
+		lock.readLock().lock();
+		try {
+			return Assignment.findPath(network, engines.get(), query.getStartLotNumber(), query.getStartRoad(),
+					query.getEndLotNumber(), query.getEndRoad());
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Description: Applies a road change line.
+	 *
+	 * @param words:
+	 *            The words of the line: "close road", "open road" or
+	 *            "length road newLength".
+	 *
+	 * @return result:
+	 *            "ok", or why the change was refused.
+	 */
+	public String update(String[] words) {
+		int road = words.length > 1 ? network.getRoadId(words[1]) : -1;
+		if (road < 0) {
+			return words.length > 1 ? "Invalid road name\n" : "Invalid query\n";
+		}
+		lock.writeLock().lock();
+		try {
+			if (words[0].equals("close") && words.length == 2) {
+				network.closeRoad(road);
+			} else if (words[0].equals("open") && words.length == 2) {
+				network.openRoad(road);
+			} else if (words[0].equals("length") && words.length == 3 && words[2].matches("\\d{1,9}")) {
+				network.setRoadLength(road, Integer.parseInt(words[2]));
+			} else {
+				return "Invalid query\n";
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+		return "ok\n";
+	}
+}
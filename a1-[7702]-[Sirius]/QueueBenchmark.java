@@ -0,0 +1,40 @@
+import java.util.List;
+/**
+ * Class times the search with each priority queue over the same queries.
+ *
+ * Usage: java -cp a1-[7702]-[Sirius].jar QueueBenchmark environmentFile queryFile [rounds]
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class QueueBenchmark {
+	/** The names of the queues to compare, the current boxed queue first. */
+	private static final String[] QUEUES = { "priority", "heap", "radix" };
+
+	public static void main(String[] args) throws Exception {
+		RoadNetwork network = new Graph(args[0]).getNetwork();
+		List<Query> queries = Assignment.readQueries(args[1], network);
+		int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+		for (String queue : QUEUES) {
+			SearchEngine engine = new DijkstraSearch(network, queue);
+			/* The first round only warms up the JIT. */
+			run(network, engine, queries);
+			long start = System.nanoTime();
+			for (int round = 0; round < rounds; round++) {
+				run(network, engine, queries);
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+			System.out.printf("%-8s %10.1f us/query %12.0f queries/s%n", queue,
+					seconds * 1e6 / (rounds * queries.size()), rounds * queries.size() / seconds);
+		}
+	}
+
+	/**
+	 * Description: Answers every query once.
+	 */
+	private static void run(RoadNetwork network, SearchEngine engine, List<Query> queries) {
+		for (Query query : queries) {
+			Assignment.findPath(network, engine, query);
+		}
+	}
+}
@@ -0,0 +1,40 @@
+/**
+ * Class represents a junction in the priority queue of the search, together
+ * with the length to root it was queued with.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class QueueEntry implements Comparable<QueueEntry> {
+	/** The id of the junction. */
+	private final int junction;
+	/** The length to root when the junction was queued. */
+	private final double lengthToRoot;
+
+	/**
+	 * Description: Constructor with two arguments.
+	 *
+	 * @param junction:
+	 *            The id of the junction.
+	 * @param lengthToRoot:
+	 *            The length to root when the junction was queued.
+	 */
+	public QueueEntry(int junction, double lengthToRoot) {
+		this.junction = junction;
+		this.lengthToRoot = lengthToRoot;
+	}
+
+	/* Accessors */
+	public int getJunction() {
+		return junction;
+	}
+
+	public double getLengthToRoot() {
+		return lengthToRoot;
+	}
+
+	@Override
+	public int compareTo(QueueEntry other) {
+		return Double.compare(lengthToRoot, other.lengthToRoot);
+	}
+}
@@ -0,0 +1,128 @@
+import java.util.Arrays;
+/**
+ * Class represents a radix heap of junctions. Each length is mapped to a
+ * long whose unsigned order is the order of the lengths, and the heap works
+ * on those monotone keys: every length added must be at least the length
+ * last polled, which holds for Dijkstra with non-negative road lengths.
+ * Keys stay exact even though lot offsets make lengths fractional (and,
+ * through rounding, sometimes a tiny bit below zero).
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class RadixJunctionQueue implements JunctionQueue {
+	/** Bucket 0 holds keys equal to the last key, bucket i keys differing from it first in bit i - 1. */
+	private static final int BUCKETS = 65;
+
+	/** The junctions in each bucket. */
+	private final int[][] junctions = new int[BUCKETS][];
+	/** The keys in each bucket. */
+	private final long[][] keys = new long[BUCKETS][];
+	/** The number of entries in each bucket. */
+	private final int[] sizes = new int[BUCKETS];
+	/** The key last taken out of the heap. */
+	private long lastKey = 0;
+	/** The number of entries in the heap. */
+	private int size = 0;
+	/** The length of the last polled entry. */
+	private double polledLength;
+
+	/**
+	 * Description: Constructor without arguments.
+	 */
+	public RadixJunctionQueue() {
+		for (int i = 0; i < BUCKETS; i++) {
+			junctions[i] = new int[16];
+			keys[i] = new long[16];
+		}
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(sizes, 0);
+		size = 0;
+		lastKey = 0;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void add(int junction, double length) {
+		long key = toKey(length);
+		push(bucketOf(key), junction, key);
+		size++;
+	}
+
+	@Override
+	public int poll() {
+		if (sizes[0] == 0) {
+			int bucket = 1;
+			while (sizes[bucket] == 0) {
+				bucket++;
+			}
+			/* The minimum of the bucket becomes the last key; the rest move to lower buckets. */
+			long[] bucketKeys = keys[bucket];
+			int[] bucketJunctions = junctions[bucket];
+			int bucketSize = sizes[bucket];
+			long min = bucketKeys[0];
+			for (int i = 1; i < bucketSize; i++) {
+				if (Long.compareUnsigned(bucketKeys[i], min) < 0) {
+					min = bucketKeys[i];
+				}
+			}
+			lastKey = min;
+			sizes[bucket] = 0;
+			for (int i = 0; i < bucketSize; i++) {
+				push(bucketOf(bucketKeys[i]), bucketJunctions[i], bucketKeys[i]);
+			}
+		}
+		int index = --sizes[0];
+		size--;
+		polledLength = toLength(keys[0][index]);
+		return junctions[0][index];
+	}
+
+	@Override
+	public double getPolledLength() {
+		return polledLength;
+	}
+
+	/**
+	 * Description: Maps the length to a key with the same unsigned order.
+	 */
+	private static long toKey(double length) {
+		long bits = Double.doubleToRawLongBits(length);
+		return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+	}
+
+	/**
+	 * Description: Maps the key back to the length.
+	 */
+	private static double toLength(long key) {
+		long bits = key ^ Long.MIN_VALUE;
+		return Double.longBitsToDouble(bits ^ ((bits >> 63) & Long.MAX_VALUE));
+	}
+
+	/**
+	 * Description: Gets the bucket of the key relative to the last key.
+	 */
+	private int bucketOf(long key) {
+		return key == lastKey ? 0 : 64 - Long.numberOfLeadingZeros(key ^ lastKey);
+	}
+
+	/**
+	 * Description: Appends an entry to the bucket, growing it if needed.
+	 */
+	private void push(int bucket, int junction, long key) {
+		int index = sizes[bucket]++;
+		if (index == junctions[bucket].length) {
+			junctions[bucket] = Arrays.copyOf(junctions[bucket], index * 2);
+			keys[bucket] = Arrays.copyOf(keys[bucket], index * 2);
+		}
+		junctions[bucket][index] = junction;
+		keys[bucket][index] = key;
+	}
+}
@@ -0,0 +1,33 @@
+import java.io.IOException;
+/**
+ * Class writes each result by opening the output file in append mode,
+ * writing the line and closing it again, as {@link Assignment#writeResults}
+ * always did. Every line is on disk as soon as it is written, at the cost
+ * of an open and close per query.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class ReopeningResultSink implements ResultSink {
+	/** The name of the output file. */
+	private final String outputFileName;
+
+	/**
+	 * Description: Constructor with one argument.
+	 *
+	 * @param outputFileName:
+	 *            The name of the output file.
+	 */
+	public ReopeningResultSink(String outputFileName) {
+		this.outputFileName = outputFileName;
+	}
+
+	@Override
+	public void write(String result) throws IOException {
+		Assignment.writeResults(result, outputFileName);
+	}
+
+	@Override
+	public void close() {
+	}
+}
@@ -0,0 +1,257 @@
+import java.io.PrintStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+/**
+ * Class keeps the result lines of recent queries, for query streams that
+ * repeat the same start and goal roads. A lot only enters the result
+ * through its distance along the road, which lots on facing sides share,
+ * so queries are keyed by road and lot position: lots 1 and 2 are one
+ * position, 3 and 4 the next, and so on.
+ *
+ * The cache holds a fixed number of lines and drops the least recently
+ * used one when full. It is shared by the engines of every thread, see
+ * {@link #wrap}; searches run outside its lock, so two threads missing
+ * the same key at once both search.
+ *
+ * Each line keeps the roads of its path, start and goal road included.
+ * A road made longer or closed only drops the lines whose path uses it:
+ * every other path is as long as before and nothing got shorter, and a
+ * longer road or a closed one never joins two roads that had no path. A
+ * road made shorter or reopened can give any query a shorter path, so it
+ * empties the cache.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class ResultCache {
+	/** The line of a query whose goal cannot be reached, with no roads. */
+	private static final Line NO_PATH = new Line("no-path\n", new int[0]);
+
+	/** The road network searched. */
+	private final RoadNetwork network;
+	/** The largest number of lines kept. */
+	private final int capacity;
+	/** The lines by query key, least recently used first. */
+	private final LinkedHashMap<Key, Line> lines;
+	/** The version of the network the lines were found on. */
+	private int version;
+	/** The number of queries answered from the cache. */
+	private long hits;
+	/** The number of queries searched. */
+	private long misses;
+	/** The number of lines dropped to make room. */
+	private long evictions;
+	/** The number of lines dropped because a road of their path changed. */
+	private long invalidations;
+
+	/**
+	 * Description: Constructor with two arguments.
+	 *
+	 * @param network:
+	 *            The road network searched.
+	 * @param capacity:
+	 *            The largest number of lines kept, at least 1.
+	 */
+	public ResultCache(RoadNetwork network, int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Cache capacity must be at least 1: " + capacity);
+		}
+		this.network = network;
+		this.capacity = capacity;
+		this.lines = new LinkedHashMap<Key, Line>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Line> eldest) {
+				if (size() <= ResultCache.this.capacity) {
+					return false;
+				}
+				evictions++;
+				return true;
+			}
+		};
+		this.version = network.getVersion();
+	}
+
+	/**
+	 * Description: Puts the cache in front of every engine of a supplier.
+	 *
+	 * @param engines:
+	 *            Creates the search engine of each thread.
+	 *
+	 * @return engines:
+	 *            Creates the engines wrapped in a {@link CachingSearch}.
+	 */
+	public Supplier<SearchEngine> wrap(final Supplier<SearchEngine> engines) {
+		return () -> new CachingSearch(engines.get(), this);
+	}
+
+	/**
+	 * Description: Gets the result line of a query from the cache, or
+	 * searches it with the engine and keeps it.
+	 *
+	 * @param engine:
+	 *            The engine to search with on a miss.
+	 * @param startLotNumber:
+	 *            The lot number on the start road.
+	 * @param startRoad:
+	 *            The id of the start road.
+	 * @param endLotNumber:
+	 *            The lot number on the goal road.
+	 * @param endRoad:
+	 *            The id of the goal road.
+	 *
+	 * @return result:
+	 *            The line to write for the query.
+	 */
+	public String search(SearchEngine engine, int startLotNumber, int startRoad, int endLotNumber, int endRoad) {
+		Key key = new Key(startRoad, (startLotNumber - 1) / 2, endRoad, (endLotNumber - 1) / 2);
+		int searchVersion;
+		synchronized (this) {
+			if (version != network.getVersion()) {
+				applyChanges();
+			}
+			Line line = lines.get(key);
+			if (line != null) {
+				hits++;
+				return line.text;
+			}
+			misses++;
+			searchVersion = version;
+		}
+		Line line = NO_PATH;
+		if (engine.route(startLotNumber, startRoad, endLotNumber, endRoad)) {
+			PathBuilder path = engine.getPath();
+			int[] roads = new int[path.getJunctionCount() + 1];
+			for (int i = 0; i < path.getJunctionCount(); i++) {
+				roads[i] = path.getRoad(i);
+			}
+			roads[roads.length - 1] = path.getEndRoad();
+			line = new Line(path.format(), roads);
+		}
+		synchronized (this) {
+			/* A line found on a network changed meanwhile is not kept. */
+			if (searchVersion == network.getVersion()) {
+				lines.put(key, line);
+			}
+		}
+		return line.text;
+	}
+
+	/**
+	 * Description: Drops the lines the road changes since the last check
+	 * affect: every line if a road got shorter or was reopened, otherwise
+	 * the lines whose path uses a road made longer or closed.
+	 */
+	private void applyChanges() {
+		int[] changedRoads = new int[network.getVersion() - version];
+		for (int next = version + 1; next <= network.getVersion(); next++) {
+			if (!network.isLonger(next)) {
+				invalidations += lines.size();
+				lines.clear();
+				version = network.getVersion();
+				return;
+			}
+			changedRoads[next - version - 1] = network.getChangedRoad(next);
+		}
+		Iterator<Line> iterator = lines.values().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().usesAny(changedRoads)) {
+				iterator.remove();
+				invalidations++;
+			}
+		}
+		version = network.getVersion();
+	}
+
+	/**
+	 * Description: Prints the hits, misses, evictions and lines dropped by
+	 * road changes.
+	 *
+	 * @param out:
+	 *            The stream to print to.
+	 */
+	public synchronized void report(PrintStream out) {
+		long lookups = Math.max(1, hits + misses);
+		out.printf("cache: %d hits, %d misses, %.1f%% hit rate, %d evictions, %d invalidations, %d of %d lines%n",
+				hits, misses, 100.0 * hits / lookups, evictions, invalidations, lines.size(), capacity);
+	}
+
+	/* Accessors */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	public synchronized long getInvalidations() {
+		return invalidations;
+	}
+
+	/**
+	 * Class is a cached result line and the roads of its path.
+	 */
+	private static final class Line {
+		private final String text;
+		private final int[] roads;
+
+		Line(String text, int[] roads) {
+			this.text = text;
+			this.roads = roads;
+		}
+
+		boolean usesAny(int[] changedRoads) {
+			for (int road : roads) {
+				for (int changedRoad : changedRoads) {
+					if (road == changedRoad) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Class is the key of a query: the roads and the lot positions on them.
+	 */
+	private static final class Key {
+		private final int startRoad;
+		private final int startPosition;
+		private final int endRoad;
+		private final int endPosition;
+
+		Key(int startRoad, int startPosition, int endRoad, int endPosition) {
+			this.startRoad = startRoad;
+			this.startPosition = startPosition;
+			this.endRoad = endRoad;
+			this.endPosition = endPosition;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) other;
+			return startRoad == key.startRoad && startPosition == key.startPosition && endRoad == key.endRoad
+					&& endPosition == key.endPosition;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = startRoad;
+			hash = hash * 31 + startPosition;
+			hash = hash * 31 + endRoad;
+			return hash * 31 + endPosition;
+		}
+	}
+}
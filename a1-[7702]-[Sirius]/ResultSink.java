@@ -0,0 +1,19 @@
+import java.io.Closeable;
+import java.io.IOException;
+/**
+ * Interface of the destination of the result lines. A sink is opened once
+ * per run; the lines reach the file at the latest when it is closed.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public interface ResultSink extends Closeable {
+
+	/**
+	 * Description: Writes one result line.
+	 *
+	 * @param result:
+	 *            The result line, ending with a line break.
+	 */
+	void write(String result) throws IOException;
+}
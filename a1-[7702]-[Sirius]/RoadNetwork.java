@@ -0,0 +1,768 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+/**
+ * Class represents the road network as a compressed sparse row (CSR)
+ * graph. Junctions and roads are interned to dense ids so that the search
+ * can walk primitive arrays instead of object sets.
+ *
+ * The road and arc numbers are kept in int buffers: wrapped Java arrays by
+ * default, or direct buffers outside the heap after {@link #storeOffHeap()},
+ * for maps whose numbers do not fit the heap allowed. Only the names and
+ * their hash tables stay on the heap then. A run uses one kind of buffer
+ * throughout, so the buffer reads are inlined like array reads.
+ *
+ * Roads can be closed, reopened and given a new length in place. A closed
+ * road's arcs are swapped behind the open arcs of their junction, so the
+ * search never sees them, and the connected components are patched around
+ * the change. Every change is logged under a new version number, so that
+ * caches and preprocessing built at an older version can check just the
+ * roads changed since. Changes must not run alongside searches.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class RoadNetwork {
+	/** The names of the junctions, indexed by junction id. */
+	private final String[] junctionNames;
+	/** The names of the roads, indexed by road id. */
+	private final String[] roadNames;
+	/** Open addressing table of junction names by hash: junction id plus one, 0 if free. */
+	private final int[] junctionTable;
+	/** Open addressing table of road names by hash: road id plus one, 0 if free. */
+	private final int[] roadTable;
+	/** The first junction of each road. */
+	private IntBuffer roadJunction1;
+	/** The second junction of each road. */
+	private IntBuffer roadJunction2;
+	/** The length of each road. */
+	private IntBuffer roadLengths;
+	/** The number of lots of each road. */
+	private IntBuffer roadLots;
+	/** The first arc of each junction, the arcs of junction j are offsets[j] to offsets[j + 1]. */
+	private IntBuffer offsets;
+	/** The junction at the other end of each arc. */
+	private IntBuffer targets;
+	/** The road of each arc. */
+	private IntBuffer arcRoads;
+	/** The length of each arc. */
+	private IntBuffer lengths;
+	/** The end of the open arcs of each junction; closed arcs follow up to the next offset. */
+	private IntBuffer arcEnds;
+	/** The connected component of each junction. */
+	private IntBuffer components;
+	/** Whether each road is closed. */
+	private final boolean[] closed;
+	/** The number of junctions of each component id, 0 once a component is merged away. */
+	private final IntList componentSizes = new IntList();
+	/** The number of connected components. */
+	private int componentCount;
+	/** The road of each change, version v at index v - 1. */
+	private final IntList changedRoads = new IntList();
+	/** The length of the road before each change, -1 if it was closed. */
+	private final IntList previousLengths = new IntList();
+	/** The length of the road after each change, -1 if it is closed. */
+	private final IntList changedLengths = new IntList();
+	/** The stamp marking junctions visited by the current pass, see {@link #splitComponent}. */
+	private int[] visits;
+	/** The last stamp used. */
+	private int visitStamp;
+
+	/**
+	 * Description: Constructor with the names and CSR arrays, used by
+	 * {@link RoadNetworkBuilder} and {@link NetworkSnapshot}. The arrays are
+	 * kept, not copied.
+	 */
+	RoadNetwork(String[] junctionNames, String[] roadNames, int[] roadJunction1, int[] roadJunction2,
+			int[] roadLengths, int[] roadLots, int[] offsets, int[] targets, int[] arcRoads, int[] lengths) {
+		this.junctionNames = junctionNames;
+		this.roadNames = roadNames;
+		this.junctionTable = new int[tableCapacity(junctionNames.length)];
+		this.roadTable = new int[tableCapacity(roadNames.length)];
+		indexNames(junctionNames, junctionTable);
+		indexNames(roadNames, roadTable);
+		this.roadJunction1 = IntBuffer.wrap(roadJunction1);
+		this.roadJunction2 = IntBuffer.wrap(roadJunction2);
+		this.roadLengths = IntBuffer.wrap(roadLengths);
+		this.roadLots = IntBuffer.wrap(roadLots);
+		this.offsets = IntBuffer.wrap(offsets);
+		this.targets = IntBuffer.wrap(targets);
+		this.arcRoads = IntBuffer.wrap(arcRoads);
+		this.lengths = IntBuffer.wrap(lengths);
+		this.arcEnds = IntBuffer.wrap(Arrays.copyOfRange(offsets, 1, offsets.length));
+		this.components = IntBuffer.wrap(new int[junctionNames.length]);
+		this.closed = new boolean[roadNames.length];
+		this.componentCount = labelComponents();
+	}
+
+	/**
+	 * Description: Gets a power of two at least twice the number of names,
+	 * so a table stays at most half full.
+	 */
+	private static int tableCapacity(int count) {
+		return Integer.highestOneBit(Math.max(2, count) * 2) * 2;
+	}
+
+	/**
+	 * Description: Fills an open addressing table of names.
+	 *
+	 * @param names:
+	 *            The names, by id.
+	 * @param table:
+	 *            The table to fill with the id plus one of each name.
+	 */
+	private static void indexNames(String[] names, int[] table) {
+		int mask = table.length - 1;
+		Arrays.fill(table, 0);
+		for (int id = 0; id < names.length; id++) {
+			int hash = names[id].hashCode();
+			int slot = (hash ^ (hash >>> 16)) & mask;
+			while (table[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = id + 1;
+		}
+	}
+
+	/**
+	 * Description: Finds a name in an open addressing table.
+	 *
+	 * @return id:
+	 *            The id of the name, or -1 if it is not in the table.
+	 */
+	private static int findName(String[] names, int[] table, String name) {
+		int hash = name.hashCode();
+		int mask = table.length - 1;
+		for (int slot = (hash ^ (hash >>> 16)) & mask;; slot = (slot + 1) & mask) {
+			int id = table[slot] - 1;
+			if (id == -1 || names[id].equals(name)) {
+				return id;
+			}
+		}
+	}
+
+	/**
+	 * Description: Moves the road and arc numbers into direct buffers outside
+	 * the heap, one array at a time, so the heap peaks at one array over the
+	 * names. Nothing happens if they are outside the heap already.
+	 */
+	void storeOffHeap() {
+		if (targets.isDirect()) {
+			return;
+		}
+		roadJunction1 = toDirect(roadJunction1);
+		roadJunction2 = toDirect(roadJunction2);
+		roadLengths = toDirect(roadLengths);
+		roadLots = toDirect(roadLots);
+		offsets = toDirect(offsets);
+		targets = toDirect(targets);
+		arcRoads = toDirect(arcRoads);
+		lengths = toDirect(lengths);
+		arcEnds = toDirect(arcEnds);
+		components = toDirect(components);
+	}
+
+	/**
+	 * Description: Copies a buffer into a direct buffer in the native byte
+	 * order, which is read without swapping bytes.
+	 */
+	private static IntBuffer toDirect(IntBuffer values) {
+		int capacity = values.capacity();
+		if (capacity > Integer.MAX_VALUE / 4) {
+			throw new IllegalArgumentException("Too many values for one direct buffer: " + capacity);
+		}
+		IntBuffer buffer = ByteBuffer.allocateDirect(capacity * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+		buffer.put(0, values, 0, capacity);
+		return buffer;
+	}
+
+	/**
+	 * Description: Checks whether the road and arc numbers are outside the
+	 * heap.
+	 */
+	public boolean isOffHeap() {
+		return targets.isDirect();
+	}
+
+	/**
+	 * Description: Gets the bytes taken by the road and arc numbers, on or
+	 * off the heap.
+	 */
+	public long getNumberBytes() {
+		long count = 0;
+		for (IntBuffer buffer : new IntBuffer[] { roadJunction1, roadJunction2, roadLengths, roadLots, offsets,
+				targets, arcRoads, lengths, arcEnds, components }) {
+			count += buffer.capacity();
+		}
+		return 4 * count;
+	}
+
+	/**
+	 * Description: Gives the junctions and roads new ids, rebuilding the
+	 * arrays in place; names are kept, only their ids move. Used by
+	 * {@link JunctionOrder} right after loading, as nothing built on the old
+	 * ids stays valid.
+	 *
+	 * @param junctionRank:
+	 *            The new id of each junction, by old id.
+	 * @param roadRank:
+	 *            The new id of each road, by old id.
+	 */
+	void renumber(int[] junctionRank, int[] roadRank) {
+		if (getVersion() != 0) {
+			throw new IllegalStateException("Cannot renumber a road network after road changes");
+		}
+		int junctionCount = junctionNames.length;
+		int roadCount = roadNames.length;
+		String[] oldJunctionNames = junctionNames.clone();
+		for (int junction = 0; junction < junctionCount; junction++) {
+			junctionNames[junctionRank[junction]] = oldJunctionNames[junction];
+		}
+		String[] oldRoadNames = roadNames.clone();
+		for (int road = 0; road < roadCount; road++) {
+			roadNames[roadRank[road]] = oldRoadNames[road];
+		}
+		indexNames(junctionNames, junctionTable);
+		indexNames(roadNames, roadTable);
+
+		/* Moves each road array through one spare array. */
+		int[] old = new int[roadCount];
+		roadJunction1.get(0, old);
+		for (int road = 0; road < roadCount; road++) {
+			roadJunction1.put(roadRank[road], junctionRank[old[road]]);
+		}
+		roadJunction2.get(0, old);
+		for (int road = 0; road < roadCount; road++) {
+			roadJunction2.put(roadRank[road], junctionRank[old[road]]);
+		}
+		roadLengths.get(0, old);
+		for (int road = 0; road < roadCount; road++) {
+			roadLengths.put(roadRank[road], old[road]);
+		}
+		roadLots.get(0, old);
+		for (int road = 0; road < roadCount; road++) {
+			roadLots.put(roadRank[road], old[road]);
+		}
+
+		/* Rebuilds the CSR arrays the way RoadNetworkBuilder does. */
+		int[] counts = new int[junctionCount + 1];
+		for (int road = 0; road < roadCount; road++) {
+			counts[roadJunction1.get(road) + 1]++;
+			counts[roadJunction2.get(road) + 1]++;
+		}
+		for (int junction = 0; junction < junctionCount; junction++) {
+			counts[junction + 1] += counts[junction];
+		}
+		offsets.put(0, counts);
+		for (int road = 0; road < roadCount; road++) {
+			int arc = counts[roadJunction1.get(road)]++;
+			targets.put(arc, roadJunction2.get(road));
+			arcRoads.put(arc, road);
+			lengths.put(arc, roadLengths.get(road));
+			arc = counts[roadJunction2.get(road)]++;
+			targets.put(arc, roadJunction1.get(road));
+			arcRoads.put(arc, road);
+			lengths.put(arc, roadLengths.get(road));
+		}
+		arcEnds.put(0, counts, 0, junctionCount);
+		componentSizes.clear();
+		componentCount = labelComponents();
+	}
+
+	/**
+	 * Description: Gets a hash of the junctions at the ends of every road,
+	 * which changes whenever the ids do. Saved preprocessing keeps it to
+	 * refuse a network loaded with other ids, by another loader or order.
+	 *
+	 * @return hash:
+	 *            The hash of the ids.
+	 */
+	public int getLayoutHash() {
+		int hash = junctionNames.length;
+		for (int road = 0; road < roadNames.length; road++) {
+			hash = hash * 31 + roadJunction1.get(road);
+			hash = hash * 31 + roadJunction2.get(road);
+		}
+		return hash;
+	}
+
+	/**
+	 * Description: Labels the connected components with a breadth first pass
+	 * over the arcs.
+	 *
+	 * @return count:
+	 *            The number of components.
+	 */
+	private int labelComponents() {
+		int junctionCount = junctionNames.length;
+		for (int junction = 0; junction < junctionCount; junction++) {
+			components.put(junction, -1);
+		}
+		int[] queue = new int[junctionCount];
+		int count = 0;
+		for (int root = 0; root < junctionCount; root++) {
+			if (components.get(root) != -1) {
+				continue;
+			}
+			components.put(root, count);
+			int head = 0;
+			int tail = 0;
+			queue[tail++] = root;
+			while (head < tail) {
+				int junction = queue[head++];
+				for (int arc = offsets.get(junction); arc < arcEnds.get(junction); arc++) {
+					int target = targets.get(arc);
+					if (components.get(target) == -1) {
+						components.put(target, count);
+						queue[tail++] = target;
+					}
+				}
+			}
+			componentSizes.add(tail);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Description: Closes a road, so no search crosses it until it is
+	 * reopened. Nothing happens if the road is closed already.
+	 *
+	 * @param road:
+	 *            The id of the road.
+	 */
+	public void closeRoad(int road) {
+		if (closed[road]) {
+			return;
+		}
+		closed[road] = true;
+		int junction1 = roadJunction1.get(road);
+		int junction2 = roadJunction2.get(road);
+		for (int junction : new int[] { junction1, junction2 }) {
+			for (int arc = offsets.get(junction); arc < arcEnds.get(junction);) {
+				if (arcRoads.get(arc) == road) {
+					int end = arcEnds.get(junction) - 1;
+					arcEnds.put(junction, end);
+					swapArcs(arc, end);
+				} else {
+					arc++;
+				}
+			}
+		}
+		logChange(road, roadLengths.get(road), -1);
+		splitComponent(junction1, junction2);
+	}
+
+	/**
+	 * Description: Reopens a closed road. Nothing happens if the road is
+	 * open.
+	 *
+	 * @param road:
+	 *            The id of the road.
+	 */
+	public void openRoad(int road) {
+		if (!closed[road]) {
+			return;
+		}
+		closed[road] = false;
+		int junction1 = roadJunction1.get(road);
+		int junction2 = roadJunction2.get(road);
+		for (int junction : new int[] { junction1, junction2 }) {
+			for (int arc = arcEnds.get(junction); arc < offsets.get(junction + 1); arc++) {
+				if (arcRoads.get(arc) == road) {
+					int end = arcEnds.get(junction);
+					arcEnds.put(junction, end + 1);
+					swapArcs(arc, end);
+				}
+			}
+		}
+		logChange(road, -1, roadLengths.get(road));
+		joinComponents(junction1, junction2);
+	}
+
+	/**
+	 * Description: Gives a road a new length. The lots stay evenly spread
+	 * over the new length.
+	 *
+	 * @param road:
+	 *            The id of the road.
+	 * @param length:
+	 *            The new length, not negative.
+	 */
+	public void setRoadLength(int road, int length) {
+		if (length < 0) {
+			throw new IllegalArgumentException("Negative road length: " + length);
+		}
+		int previousLength = roadLengths.get(road);
+		if (length == previousLength) {
+			return;
+		}
+		roadLengths.put(road, length);
+		for (int junction : new int[] { roadJunction1.get(road), roadJunction2.get(road) }) {
+			for (int arc = offsets.get(junction); arc < offsets.get(junction + 1); arc++) {
+				if (arcRoads.get(arc) == road) {
+					lengths.put(arc, length);
+				}
+			}
+		}
+		/* A closed road logs its length when it is reopened. */
+		if (!closed[road]) {
+			logChange(road, previousLength, length);
+		}
+	}
+
+	/**
+	 * Description: Swaps two arcs of one junction.
+	 */
+	private void swapArcs(int arc1, int arc2) {
+		int target = targets.get(arc1);
+		int road = arcRoads.get(arc1);
+		int length = lengths.get(arc1);
+		targets.put(arc1, targets.get(arc2));
+		arcRoads.put(arc1, arcRoads.get(arc2));
+		lengths.put(arc1, lengths.get(arc2));
+		targets.put(arc2, target);
+		arcRoads.put(arc2, road);
+		lengths.put(arc2, length);
+	}
+
+	/**
+	 * Description: Records a change under the next version.
+	 */
+	private void logChange(int road, int previousLength, int length) {
+		changedRoads.add(road);
+		previousLengths.add(previousLength);
+		changedLengths.add(length);
+	}
+
+	/**
+	 * Description: Gives the side of a closed road that no longer reaches the
+	 * other side a component of its own. Breadth first passes from both
+	 * junctions take turns until they meet or one runs out, so the work is
+	 * bounded by the smaller side.
+	 */
+	private void splitComponent(int junction1, int junction2) {
+		if (junction1 == junction2) {
+			return;
+		}
+		if (visits == null || visitStamp > Integer.MAX_VALUE - 2) {
+			visits = new int[junctionNames.length];
+			visitStamp = 0;
+		}
+		int[] stamps = { ++visitStamp, ++visitStamp };
+		int[][] queues = { new int[16], new int[16] };
+		int[] heads = new int[2];
+		int[] tails = { 1, 1 };
+		queues[0][0] = junction1;
+		queues[1][0] = junction2;
+		visits[junction1] = stamps[0];
+		visits[junction2] = stamps[1];
+		while (true) {
+			for (int side = 0; side < 2; side++) {
+				if (heads[side] == tails[side]) {
+					/* This side is cut off from the other. */
+					int component = componentSizes.size();
+					componentSizes.add(tails[side]);
+					int split = components.get(junction1);
+					componentSizes.set(split, componentSizes.get(split) - tails[side]);
+					for (int i = 0; i < tails[side]; i++) {
+						components.put(queues[side][i], component);
+					}
+					componentCount++;
+					return;
+				}
+				int junction = queues[side][heads[side]++];
+				for (int arc = offsets.get(junction); arc < arcEnds.get(junction); arc++) {
+					int target = targets.get(arc);
+					if (visits[target] == stamps[1 - side]) {
+						return;
+					}
+					if (visits[target] != stamps[side]) {
+						visits[target] = stamps[side];
+						if (tails[side] == queues[side].length) {
+							queues[side] = Arrays.copyOf(queues[side], tails[side] * 2);
+						}
+						queues[side][tails[side]++] = target;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Description: Merges the components of the two junctions of a reopened
+	 * road, relabelling the smaller one.
+	 */
+	private void joinComponents(int junction1, int junction2) {
+		int component1 = components.get(junction1);
+		int component2 = components.get(junction2);
+		if (component1 == component2) {
+			return;
+		}
+		int from = componentSizes.get(component1) < componentSizes.get(component2) ? junction1 : junction2;
+		int small = components.get(from);
+		int large = small == component1 ? component2 : component1;
+		IntList queue = new IntList();
+		components.put(from, large);
+		queue.add(from);
+		while (queue.size() > 0) {
+			int junction = queue.removeLast();
+			for (int arc = offsets.get(junction); arc < arcEnds.get(junction); arc++) {
+				int target = targets.get(arc);
+				if (components.get(target) == small) {
+					components.put(target, large);
+					queue.add(target);
+				}
+			}
+		}
+		componentSizes.set(large, componentSizes.get(large) + componentSizes.get(small));
+		componentSizes.set(small, 0);
+		componentCount--;
+	}
+
+	/* Accessors */
+	public int getJunctionCount() {
+		return junctionNames.length;
+	}
+
+	public int getRoadCount() {
+		return roadNames.length;
+	}
+
+	public int getArcCount() {
+		return targets.capacity();
+	}
+
+	public String getJunctionName(int junction) {
+		return junctionNames[junction];
+	}
+
+	public String getRoadName(int road) {
+		return roadNames[road];
+	}
+
+	public int getRoadJunction1(int road) {
+		return roadJunction1.get(road);
+	}
+
+	public int getRoadJunction2(int road) {
+		return roadJunction2.get(road);
+	}
+
+	public int getRoadLength(int road) {
+		return roadLengths.get(road);
+	}
+
+	public int getRoadLots(int road) {
+		return roadLots.get(road);
+	}
+
+	public int firstArc(int junction) {
+		return offsets.get(junction);
+	}
+
+	public int lastArc(int junction) {
+		return arcEnds.get(junction);
+	}
+
+	public int getArcTarget(int arc) {
+		return targets.get(arc);
+	}
+
+	public int getArcRoad(int arc) {
+		return arcRoads.get(arc);
+	}
+
+	public int getArcLength(int arc) {
+		return lengths.get(arc);
+	}
+
+	public int getComponent(int junction) {
+		return components.get(junction);
+	}
+
+	public int getComponentCount() {
+		return componentCount;
+	}
+
+	public boolean isRoadClosed(int road) {
+		return closed[road];
+	}
+
+	/**
+	 * Description: Gets the version of the network: the number of changes
+	 * made since it was loaded.
+	 */
+	public int getVersion() {
+		return changedRoads.size();
+	}
+
+	/**
+	 * Description: Gets the road changed by a version.
+	 *
+	 * @param version:
+	 *            The version, from 1 to {@link #getVersion()}.
+	 */
+	public int getChangedRoad(int version) {
+		return changedRoads.get(version - 1);
+	}
+
+	/**
+	 * Description: Gets the length of the road before a version, -1 if it
+	 * was closed.
+	 *
+	 * @param version:
+	 *            The version, from 1 to {@link #getVersion()}.
+	 */
+	public int getPreviousLength(int version) {
+		return previousLengths.get(version - 1);
+	}
+
+	/**
+	 * Description: Gets the length of the road after a version, -1 if it was
+	 * closed.
+	 *
+	 * @param version:
+	 *            The version, from 1 to {@link #getVersion()}.
+	 */
+	public int getChangedLength(int version) {
+		return changedLengths.get(version - 1);
+	}
+
+	/**
+	 * Description: Checks whether a version made its road longer or closed
+	 * it. Such a change can only make paths longer, so a lower bound of a
+	 * length stays a lower bound.
+	 *
+	 * @param version:
+	 *            The version, from 1 to {@link #getVersion()}.
+	 */
+	public boolean isLonger(int version) {
+		int length = getChangedLength(version);
+		return length == -1 || length > getPreviousLength(version) && getPreviousLength(version) != -1;
+	}
+
+	/**
+	 * Description: Checks whether any path joins two roads. A search never
+	 * needs to cross the goal road to reach it, so roads in one component
+	 * always have a path between their lots.
+	 *
+	 * @param road1:
+	 *            The id of one road.
+	 * @param road2:
+	 *            The id of the other road.
+	 */
+	public boolean isConnected(int road1, int road2) {
+		return components.get(roadJunction1.get(road1)) == components.get(roadJunction1.get(road2));
+	}
+
+	/**
+	 * Description: Gets the id of the junction by name.
+	 *
+	 * @param junctionName:
+	 *            The name of the junction.
+	 *
+	 * @return id:
+	 *            The id of the junction, or -1 if there is no such junction.
+	 */
+	public int getJunctionId(String junctionName) {
+		return findName(junctionNames, junctionTable, junctionName);
+	}
+
+	/**
+	 * Description: Gets the id of the road by name.
+	 *
+	 * @param roadName:
+	 *            The name of the road.
+	 *
+	 * @return id:
+	 *            The id of the road, or -1 if there is no such road.
+	 */
+	public int getRoadId(String roadName) {
+		return findName(roadNames, roadTable, roadName);
+	}
+
+	/**
+	 * Description: Gets the id of the road whose name is the chars in
+	 * [start, end), without making a string of them.
+	 *
+	 * @param chars:
+	 *            The chars holding the name.
+	 * @param start:
+	 *            The index of the first char of the name.
+	 * @param end:
+	 *            The index after the last char of the name.
+	 *
+	 * @return id:
+	 *            The id of the road, or -1 if there is no such road.
+	 */
+	public int getRoadId(char[] chars, int start, int end) {
+		/* The same hash as String.hashCode, which the table was built with. */
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + chars[i];
+		}
+		int mask = roadTable.length - 1;
+		for (int slot = (hash ^ (hash >>> 16)) & mask;; slot = (slot + 1) & mask) {
+			int road = roadTable[slot] - 1;
+			if (road == -1) {
+				return -1;
+			}
+			if (matches(roadNames[road], chars, start, end)) {
+				return road;
+			}
+		}
+	}
+
+	/**
+	 * Description: Checks whether the name equals the chars in [start, end).
+	 */
+	private static boolean matches(String name, char[] chars, int start, int end) {
+		if (name.length() != end - start) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (name.charAt(i - start) != chars[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Description: Calculates the length between the given junction and lot,
+	 * same as {@link Road#lengthToLot(Junction, int)}.
+	 *
+	 * @param road:
+	 *            The id of the road.
+	 * @param junction:
+	 *            The id of the junction to be calculated.
+	 * @param lotNumber:
+	 *            The number of the lot to be calculated.
+	 */
+	public double lengthToLot(int road, int junction, int lotNumber) {
+		int roadLength = roadLengths.get(road);
+		double length = (2.0 * roadLength / roadLots.get(road)) * ((lotNumber - 1) / 2 + 0.5);
+		if (junction == roadJunction2.get(road)) {
+			length = roadLength - length;
+		}
+		return length;
+	}
+
+	/**
+	 * Description: Calculates the length between two lots on the same road,
+	 * same as {@link Road#lengthToLot(int, int)}.
+	 *
+	 * @param road:
+	 *            The id of the road.
+	 * @param lotNumber1:
+	 *            The number of the first lot to be calculated.
+	 * @param lotNumber2:
+	 *            The number of the second lot to be calculated.
+	 */
+	public double lengthBetweenLots(int road, int lotNumber1, int lotNumber2) {
+		return (2.0 * roadLengths.get(road) / roadLots.get(road))
+				* Math.abs((lotNumber2 - 1) / 2 - (lotNumber1 - 1) / 2);
+	}
+}
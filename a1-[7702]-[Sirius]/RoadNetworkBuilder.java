@@ -0,0 +1,143 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+/**
+ * Class collects roads one by one and builds the {@link RoadNetwork}.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class RoadNetworkBuilder {
+	/** Junction ids interned by name. */
+	private Map<String, Integer> junctionIds = new HashMap<String, Integer>();
+	/** Road ids interned by name. */
+	private Map<String, Integer> roadIds = new HashMap<String, Integer>();
+	/** The names of the junctions, indexed by junction id. */
+	private String[] junctionNames = new String[16];
+	/** The names of the roads, indexed by road id. */
+	private String[] roadNames = new String[16];
+	/** The first junction of each road. */
+	private int[] roadJunction1 = new int[16];
+	/** The second junction of each road. */
+	private int[] roadJunction2 = new int[16];
+	/** The length of each road. */
+	private int[] roadLengths = new int[16];
+	/** The number of lots of each road. */
+	private int[] roadLots = new int[16];
+
+	/**
+	 * Description: Adds a road. A road with an existing name replaces the
+	 * previous one, the same way {@link Graph#createGraph} does.
+	 *
+	 * @param roadName:
+	 *            The name of the road.
+	 * @param junctionName1:
+	 *            The name of the first junction.
+	 * @param junctionName2:
+	 *            The name of the second junction.
+	 * @param roadLength:
+	 *            The length of the road.
+	 * @param nLots:
+	 *            The number of the lots on the road.
+	 */
+	public void addRoad(String roadName, String junctionName1, String junctionName2, int roadLength, int nLots) {
+		addRoad(roadName, addJunction(junctionName1), addJunction(junctionName2), roadLength, nLots);
+	}
+
+	/**
+	 * Description: Adds a road between junctions already added with
+	 * {@link #addJunction}.
+	 *
+	 * @param roadName:
+	 *            The name of the road.
+	 * @param junction1:
+	 *            The id of the first junction.
+	 * @param junction2:
+	 *            The id of the second junction.
+	 * @param roadLength:
+	 *            The length of the road.
+	 * @param nLots:
+	 *            The number of the lots on the road.
+	 */
+	public void addRoad(String roadName, int junction1, int junction2, int roadLength, int nLots) {
+		Integer road = roadIds.get(roadName);
+		if (road == null) {
+			road = roadIds.size();
+			roadIds.put(roadName, road);
+			if (road == roadNames.length) {
+				int capacity = road * 2;
+				roadNames = Arrays.copyOf(roadNames, capacity);
+				roadJunction1 = Arrays.copyOf(roadJunction1, capacity);
+				roadJunction2 = Arrays.copyOf(roadJunction2, capacity);
+				roadLengths = Arrays.copyOf(roadLengths, capacity);
+				roadLots = Arrays.copyOf(roadLots, capacity);
+			}
+		}
+		roadNames[road] = roadName;
+		roadJunction1[road] = junction1;
+		roadJunction2[road] = junction2;
+		roadLengths[road] = roadLength;
+		roadLots[road] = nLots;
+	}
+
+	/**
+	 * Description: Gets the id of the junction, creating it if needed. Ids
+	 * are given in the order junctions are first added.
+	 *
+	 * @param junctionName:
+	 *            The name of the junction.
+	 *
+	 * @return junction:
+	 *            The id of the junction.
+	 */
+	public int addJunction(String junctionName) {
+		Integer junction = junctionIds.get(junctionName);
+		if (junction == null) {
+			junction = junctionIds.size();
+			junctionIds.put(junctionName, junction);
+			if (junction == junctionNames.length) {
+				junctionNames = Arrays.copyOf(junctionNames, junction * 2);
+			}
+			junctionNames[junction] = junctionName;
+		}
+		return junction;
+	}
+
+	/**
+	 * Description: Builds the CSR network from the roads added so far.
+	 *
+	 * @return network:
+	 *            The immutable road network.
+	 */
+	public RoadNetwork build() {
+		int junctionCount = junctionIds.size();
+		int roadCount = roadIds.size();
+		int[] offsets = new int[junctionCount + 1];
+		for (int road = 0; road < roadCount; road++) {
+			offsets[roadJunction1[road] + 1]++;
+			offsets[roadJunction2[road] + 1]++;
+		}
+		for (int junction = 0; junction < junctionCount; junction++) {
+			offsets[junction + 1] += offsets[junction];
+		}
+		int arcCount = offsets[junctionCount];
+		int[] targets = new int[arcCount];
+		int[] arcRoads = new int[arcCount];
+		int[] lengths = new int[arcCount];
+		int[] next = Arrays.copyOf(offsets, junctionCount);
+		for (int road = 0; road < roadCount; road++) {
+			int arc = next[roadJunction1[road]]++;
+			targets[arc] = roadJunction2[road];
+			arcRoads[arc] = road;
+			lengths[arc] = roadLengths[road];
+			arc = next[roadJunction2[road]]++;
+			targets[arc] = roadJunction1[road];
+			arcRoads[arc] = road;
+			lengths[arc] = roadLengths[road];
+		}
+		return new RoadNetwork(Arrays.copyOf(junctionNames, junctionCount), Arrays.copyOf(roadNames, roadCount),
+				Arrays.copyOf(roadJunction1, roadCount), Arrays.copyOf(roadJunction2, roadCount),
+				Arrays.copyOf(roadLengths, roadCount), Arrays.copyOf(roadLots, roadCount), offsets, targets,
+				arcRoads, lengths);
+	}
+}
@@ -0,0 +1,58 @@
+/**
+ * Interface of a shortest path search between two lots. The queries passed
+ * in are already checked: both roads exist, both lot numbers are valid and
+ * the roads differ. An engine keeps per-query state and is used by one
+ * thread at a time.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public interface SearchEngine {
+
+	/**
+	 * Description: Searches the shortest path between two lots and keeps it
+	 * in {@link #getPath()}, finished with the lot numbers.
+	 *
+	 * @param startLotNumber:
+	 *            The lot number on the start road.
+	 * @param startRoad:
+	 *            The id of the start road.
+	 * @param endLotNumber:
+	 *            The lot number on the goal road.
+	 * @param endRoad:
+	 *            The id of the goal road.
+	 *
+	 * @return found:
+	 *            False if the goal cannot be reached.
+	 */
+	boolean route(int startLotNumber, int startRoad, int endLotNumber, int endRoad);
+
+	/**
+	 * Description: Gets the path of the last query whose goal was reached,
+	 * as ids through {@link PathBuilder#toArray()} or as text.
+	 */
+	PathBuilder getPath();
+
+	/**
+	 * Description: Searches the shortest path between two lots.
+	 *
+	 * @param startLotNumber:
+	 *            The lot number on the start road.
+	 * @param startRoad:
+	 *            The id of the start road.
+	 * @param endLotNumber:
+	 *            The lot number on the goal road.
+	 * @param endRoad:
+	 *            The id of the goal road.
+	 *
+	 * @return result:
+	 *            The line to write for the query, "no-path\n" if the goal
+	 *            cannot be reached.
+	 */
+	default String search(int startLotNumber, int startRoad, int endLotNumber, int endRoad) {
+		if (!route(startLotNumber, startRoad, endLotNumber, endRoad)) {
+			return "no-path\n";
+		}
+		return getPath().format();
+	}
+}
@@ -0,0 +1,239 @@
+/**
+ * Class holds the command line options of {@link Assignment} after the
+ * three file names.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class SearchOptions {
+	/** The number of worker threads. */
+	private int threads = 1;
+	/** The name of the priority queue. */
+	private String queueType = SearchWorkspace.DEFAULT_QUEUE;
+	/** The name of the search engine. */
+	private String mode = "dijkstra";
+	/** The contraction hierarchy file, or null to build the hierarchy at start up. */
+	private String hierarchyFile = null;
+	/** The name of the environment file loader. */
+	private String loader = "mapped";
+	/** The junction order applied after loading, see {@link JunctionOrder}. */
+	private String order = JunctionOrder.DEFAULT_ORDER;
+	/** Where the road and arc numbers are kept: "heap" or "direct" (off the heap). */
+	private String store = "heap";
+	/** Whether a fresh snapshot of the environment file is used instead of the file. */
+	private boolean snapshot = true;
+	/** The name of the result sink. */
+	private String output = "buffered";
+	/** Whether results are appended to the output file rather than replacing it. */
+	private boolean append = true;
+	/** The distance table file of the table search. */
+	private String tableFile = null;
+	/** The hub label file, or null to build the labels at start up. */
+	private String labelFile = null;
+	/** The bucket width of the delta search, 0 to choose it from the road lengths. */
+	private double delta = 0;
+	/** The number of landmarks of the alt search. */
+	private int landmarkCount = Landmarks.DEFAULT_COUNT;
+	/** The number of result lines kept by the {@link ResultCache}, 0 for no cache. */
+	private int cacheSize = 0;
+	/** Whether the latency histogram and search counts are printed after the batch. */
+	private boolean stats = false;
+	/** The per-query CSV trace file, or null for no trace. */
+	private String traceFile = null;
+
+	/**
+	 * Description: Parses options given as "-name value" pairs.
+	 *
+	 * @param args:
+	 *            The command line arguments.
+	 * @param from:
+	 *            The index of the first option.
+	 *
+	 * @return options:
+	 *            The parsed options, defaults for the ones not given.
+	 */
+	public static SearchOptions parse(String[] args, int from) {
+		SearchOptions options = new SearchOptions();
+		for (int i = from; i < args.length; i += 2) {
+			if (i + 1 == args.length) {
+				throw new IllegalArgumentException("Missing value for " + args[i]);
+			}
+			String value = args[i + 1];
+			if (args[i].equals("-threads")) {
+				options.setThreads(Integer.parseInt(value));
+			} else if (args[i].equals("-queue")) {
+				options.setQueueType(value);
+			} else if (args[i].equals("-mode")) {
+				options.setMode(value);
+			} else if (args[i].equals("-ch")) {
+				options.setHierarchyFile(value);
+			} else if (args[i].equals("-loader")) {
+				options.setLoader(value);
+			} else if (args[i].equals("-order")) {
+				options.setOrder(value);
+			} else if (args[i].equals("-store")) {
+				options.setStore(value);
+			} else if (args[i].equals("-snapshot")) {
+				options.setSnapshot(Boolean.parseBoolean(value));
+			} else if (args[i].equals("-output")) {
+				options.setOutput(value);
+			} else if (args[i].equals("-append")) {
+				options.setAppend(Boolean.parseBoolean(value));
+			} else if (args[i].equals("-table")) {
+				options.setTableFile(value);
+			} else if (args[i].equals("-labels")) {
+				options.setLabelFile(value);
+			} else if (args[i].equals("-delta")) {
+				options.setDelta(Double.parseDouble(value));
+			} else if (args[i].equals("-landmarks")) {
+				options.setLandmarkCount(Integer.parseInt(value));
+			} else if (args[i].equals("-cache")) {
+				options.setCacheSize(Integer.parseInt(value));
+			} else if (args[i].equals("-stats")) {
+				options.setStats(Boolean.parseBoolean(value));
+			} else if (args[i].equals("-trace")) {
+				options.setTraceFile(value);
+			} else {
+				throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+		return options;
+	}
+
+	/* Accessors and Mutators */
+	public int getThreads() {
+		return threads;
+	}
+
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	public String getQueueType() {
+		return queueType;
+	}
+
+	public void setQueueType(String queueType) {
+		this.queueType = queueType;
+	}
+
+	public String getMode() {
+		return mode;
+	}
+
+	public void setMode(String mode) {
+		this.mode = mode;
+	}
+
+	public String getHierarchyFile() {
+		return hierarchyFile;
+	}
+
+	public void setHierarchyFile(String hierarchyFile) {
+		this.hierarchyFile = hierarchyFile;
+	}
+
+	public String getTableFile() {
+		return tableFile;
+	}
+
+	public void setTableFile(String tableFile) {
+		this.tableFile = tableFile;
+	}
+
+	public String getLabelFile() {
+		return labelFile;
+	}
+
+	public void setLabelFile(String labelFile) {
+		this.labelFile = labelFile;
+	}
+
+	public double getDelta() {
+		return delta;
+	}
+
+	public void setDelta(double delta) {
+		this.delta = delta;
+	}
+
+	public int getLandmarkCount() {
+		return landmarkCount;
+	}
+
+	public void setLandmarkCount(int landmarkCount) {
+		this.landmarkCount = landmarkCount;
+	}
+
+	public String getLoader() {
+		return loader;
+	}
+
+	public void setLoader(String loader) {
+		this.loader = loader;
+	}
+
+	public boolean isSnapshot() {
+		return snapshot;
+	}
+
+	public void setSnapshot(boolean snapshot) {
+		this.snapshot = snapshot;
+	}
+
+	public String getOutput() {
+		return output;
+	}
+
+	public void setOutput(String output) {
+		this.output = output;
+	}
+
+	public boolean isAppend() {
+		return append;
+	}
+
+	public void setAppend(boolean append) {
+		this.append = append;
+	}
+
+	public String getOrder() {
+		return order;
+	}
+
+	public void setOrder(String order) {
+		this.order = order;
+	}
+
+	public String getStore() {
+		return store;
+	}
+
+	public void setStore(String store) {
+		this.store = store;
+	}
+
+	public int getCacheSize() {
+		return cacheSize;
+	}
+
+	public void setCacheSize(int cacheSize) {
+		this.cacheSize = cacheSize;
+	}
+
+	public boolean isStats() {
+		return stats;
+	}
+
+	public void setStats(boolean stats) {
+		this.stats = stats;
+	}
+
+	public String getTraceFile() {
+		return traceFile;
+	}
+
+	public void setTraceFile(String traceFile) {
+		this.traceFile = traceFile;
+	}
+}
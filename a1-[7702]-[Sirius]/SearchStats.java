@@ -0,0 +1,191 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+/**
+ * Class counts the work of the searches of one thread: queue pushes, pops
+ * of stale entries, junctions settled and relaxations, and the wall time
+ * of each query in a {@link LatencyHistogram}. The counts are taken by the
+ * {@link CountingSearchWorkspace} and {@link CountingJunctionQueue} that
+ * {@link Assignment#createWorkspaces} gives the engines only when the
+ * options ask for stats, so a run without them searches with the very
+ * same code as before.
+ *
+ * A relaxation is an arc that gave a junction a shorter path. They are
+ * counted apart for each graph the engines search: the road network, and
+ * the contraction hierarchy of the ch mode. The trees of the delta mode
+ * are grown on the pool, so only their final arcs are counted.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class SearchStats {
+	/** The index of the relaxations of the road network. */
+	public static final int ROAD_NETWORK = 0;
+	/** The index of the relaxations of the contraction hierarchy. */
+	public static final int HIERARCHY = 1;
+	/** The number of longs of a trace row. */
+	private static final int ROW = 7;
+
+	/** The road network searched, or null while the stats are disabled. */
+	private static volatile RoadNetwork network = null;
+	/** Whether each query is kept for the trace. */
+	private static volatile boolean tracing = false;
+	/** The stats of every thread since they were enabled. */
+	private static final List<SearchStats> ALL = new ArrayList<SearchStats>();
+	/** The stats of the current thread. */
+	private static final ThreadLocal<SearchStats> CURRENT = ThreadLocal.withInitial(() -> {
+		SearchStats stats = new SearchStats();
+		synchronized (ALL) {
+			ALL.add(stats);
+		}
+		return stats;
+	});
+
+	/* The counts of the query in progress. */
+	long pushes;
+	long pops;
+	long stalePops;
+	/** The relaxations of each graph, by {@link #ROAD_NETWORK} or {@link #HIERARCHY}. */
+	final long[] relaxations = new long[2];
+
+	/** The wall time of each query. */
+	private LatencyHistogram latencies = new LatencyHistogram();
+	/** The query index, time and counts of each query, ROW longs a query. */
+	private long[] rows = new long[0];
+	/** The number of longs used in rows. */
+	private int rowsSize = 0;
+	/** The totals of the counts over every query. */
+	private final long[] totals = new long[5];
+
+	/**
+	 * Description: Enables the stats of the searches over a network, for
+	 * the engines made from now on. Any earlier stats are dropped.
+	 *
+	 * @param network:
+	 *            The road network searched.
+	 * @param trace:
+	 *            Whether each query is kept for {@link #writeTrace}.
+	 */
+	public static void enable(RoadNetwork network, boolean trace) {
+		synchronized (ALL) {
+			for (SearchStats stats : ALL) {
+				stats.clear();
+			}
+		}
+		tracing = trace;
+		SearchStats.network = network;
+	}
+
+	/**
+	 * Description: Disables the stats for the engines made from now on.
+	 */
+	public static void disable() {
+		network = null;
+	}
+
+	/**
+	 * Description: Gets the stats of the current thread.
+	 *
+	 * @return stats:
+	 *            The stats, or null if they are disabled.
+	 */
+	public static SearchStats forThread() {
+		return network == null ? null : CURRENT.get();
+	}
+
+	private void clear() {
+		pushes = pops = stalePops = 0;
+		Arrays.fill(relaxations, 0);
+		Arrays.fill(totals, 0);
+		rowsSize = 0;
+		latencies = new LatencyHistogram();
+	}
+
+	/**
+	 * Description: Records a query answered by this thread, starting the
+	 * counts of the next one.
+	 *
+	 * @param query:
+	 *            The index of the query in the query file.
+	 * @param nanos:
+	 *            The wall time of the query.
+	 */
+	public void record(int query, long nanos) {
+		latencies.record(nanos);
+		long settled = pops - stalePops;
+		totals[0] += settled;
+		totals[1] += pushes;
+		totals[2] += stalePops;
+		totals[3] += relaxations[ROAD_NETWORK];
+		totals[4] += relaxations[HIERARCHY];
+		if (tracing) {
+			if (rowsSize + ROW > rows.length) {
+				rows = Arrays.copyOf(rows, Math.max(ROW * 256, rows.length * 2));
+			}
+			rows[rowsSize++] = query;
+			rows[rowsSize++] = nanos;
+			rows[rowsSize++] = settled;
+			rows[rowsSize++] = pushes;
+			rows[rowsSize++] = stalePops;
+			rows[rowsSize++] = relaxations[ROAD_NETWORK];
+			rows[rowsSize++] = relaxations[HIERARCHY];
+		}
+		pushes = pops = stalePops = 0;
+		Arrays.fill(relaxations, 0);
+	}
+
+	/**
+	 * Description: Prints the latency histogram and the work counts of
+	 * every thread together.
+	 *
+	 * @param out:
+	 *            The stream to print to.
+	 */
+	public static void report(PrintStream out) {
+		LatencyHistogram latencies = new LatencyHistogram();
+		long[] totals = new long[5];
+		synchronized (ALL) {
+			for (SearchStats stats : ALL) {
+				latencies.add(stats.latencies);
+				for (int i = 0; i < totals.length; i++) {
+					totals[i] += stats.totals[i];
+				}
+			}
+		}
+		latencies.print(out);
+		long count = Math.max(1, latencies.getCount());
+		out.printf("per query: %.1f settled, %.1f pushes, %.1f stale pops, %.1f road network relaxations, "
+				+ "%.1f hierarchy relaxations%n", (double) totals[0] / count, (double) totals[1] / count,
+				(double) totals[2] / count, (double) totals[3] / count, (double) totals[4] / count);
+	}
+
+	/**
+	 * Description: Writes one CSV line per query in query file order: the
+	 * query index, its wall time in nanoseconds and its counts.
+	 *
+	 * @param traceFile:
+	 *            The name of the file to write.
+	 */
+	public static void writeTrace(String traceFile) throws IOException {
+		List<long[]> lines = new ArrayList<long[]>();
+		synchronized (ALL) {
+			for (SearchStats stats : ALL) {
+				for (int i = 0; i < stats.rowsSize; i += ROW) {
+					lines.add(Arrays.copyOfRange(stats.rows, i, i + ROW));
+				}
+			}
+		}
+		lines.sort((line1, line2) -> Long.compare(line1[0], line2[0]));
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(traceFile))) {
+			writer.write("query,nanos,settled,pushes,stale_pops,road_relaxations,hierarchy_relaxations\n");
+			for (long[] line : lines) {
+				writer.write(line[0] + "," + line[1] + "," + line[2] + "," + line[3] + "," + line[4] + "," + line[5]
+						+ "," + line[6] + "\n");
+			}
+		}
+	}
+}
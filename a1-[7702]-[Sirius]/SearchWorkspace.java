@@ -0,0 +1,159 @@
+import java.util.Arrays;
+import java.util.function.IntFunction;
+/**
+ * Class holds the per-query state of the search, so that the road network
+ * itself is never written and can be shared between threads. Each query
+ * starts a new epoch; a junction whose stamp is not the current epoch has
+ * not been reached yet, which makes the reset between queries O(1).
+ *
+ * A workspace is used by one thread at a time.
+ *
+ * The priority queue is chosen by name: "radix" for {@link RadixJunctionQueue}
+ * (the default), "heap" for {@link IndexedJunctionHeap} and "priority" for
+ * the boxed {@link PriorityJunctionQueue}.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class SearchWorkspace {
+	/** The name of the default priority queue. */
+	public static final String DEFAULT_QUEUE = "radix";
+
+	/** The length to the start point of each junction. */
+	private final double[] lengthToRoot;
+	/** The last junction in the shortest path to each junction, -1 for a root. */
+	private final int[] lastJunction;
+	/** The last road in the shortest path to each junction. */
+	private final int[] lastRoad;
+	/** The epoch in which each junction was last reached. */
+	private final int[] stamps;
+	/** The epoch of the current query. */
+	private int epoch = 0;
+	/** The priority queue of the search, reused between queries. */
+	private final JunctionQueue queue;
+
+	/**
+	 * Description: Constructor with one argument, using the default queue.
+	 *
+	 * @param junctionCount:
+	 *            The number of junctions in the road network.
+	 */
+	public SearchWorkspace(int junctionCount) {
+		this(junctionCount, DEFAULT_QUEUE);
+	}
+
+	/**
+	 * Description: Constructor with two arguments.
+	 *
+	 * @param junctionCount:
+	 *            The number of junctions in the road network.
+	 * @param queueType:
+	 *            The name of the priority queue.
+	 */
+	public SearchWorkspace(int junctionCount, String queueType) {
+		this(junctionCount, createQueue(queueType, junctionCount));
+	}
+
+	/**
+	 * Description: Constructor with two arguments, using a queue made by the
+	 * caller.
+	 *
+	 * @param junctionCount:
+	 *            The number of junctions in the road network.
+	 * @param queue:
+	 *            The empty priority queue of the search.
+	 */
+	public SearchWorkspace(int junctionCount, JunctionQueue queue) {
+		lengthToRoot = new double[junctionCount];
+		lastJunction = new int[junctionCount];
+		lastRoad = new int[junctionCount];
+		stamps = new int[junctionCount];
+		this.queue = queue;
+	}
+
+	/**
+	 * Description: Starts a new query, forgetting every junction reached by
+	 * the previous one.
+	 */
+	public void reset() {
+		epoch++;
+		if (epoch == Integer.MAX_VALUE) {
+			Arrays.fill(stamps, 0);
+			epoch = 1;
+		}
+		queue.clear();
+	}
+
+	/**
+	 * Description: Creates the priority queue with the given name.
+	 *
+	 * @param queueType:
+	 *            "radix", "heap" or "priority".
+	 * @param junctionCount:
+	 *            The number of junctions in the road network.
+	 */
+	public static JunctionQueue createQueue(String queueType, int junctionCount) {
+		if (queueType.equals("radix")) {
+			return new RadixJunctionQueue();
+		} else if (queueType.equals("heap")) {
+			return new IndexedJunctionHeap(junctionCount);
+		} else if (queueType.equals("priority")) {
+			return new PriorityJunctionQueue();
+		}
+		throw new IllegalArgumentException("Unknown queue type: " + queueType);
+	}
+
+	/**
+	 * Description: Gets the maker of the workspaces with the given queue,
+	 * for engines that take their workspaces from the caller.
+	 *
+	 * @param queueType:
+	 *            "radix", "heap" or "priority".
+	 *
+	 * @return workspaces:
+	 *            Creates a workspace from the number of junctions.
+	 */
+	public static IntFunction<SearchWorkspace> workspaces(final String queueType) {
+		return junctionCount -> new SearchWorkspace(junctionCount, queueType);
+	}
+
+	/* Accessors and Mutators */
+	public boolean isReached(int junction) {
+		return stamps[junction] == epoch;
+	}
+
+	public double getLengthToRoot(int junction) {
+		return stamps[junction] == epoch ? lengthToRoot[junction] : Double.POSITIVE_INFINITY;
+	}
+
+	public int getLastJunction(int junction) {
+		return lastJunction[junction];
+	}
+
+	public int getLastRoad(int junction) {
+		return lastRoad[junction];
+	}
+
+	public JunctionQueue getQueue() {
+		return queue;
+	}
+
+	/**
+	 * Description: Records a shorter path to the junction.
+	 *
+	 * @param junction:
+	 *            The id of the junction reached.
+	 * @param length:
+	 *            The length to the start point.
+	 * @param previousJunction:
+	 *            The last junction on the path, or -1 for a root.
+	 * @param road:
+	 *            The last road on the path.
+	 */
+	public void update(int junction, double length, int previousJunction, int road) {
+		stamps[junction] = epoch;
+		lengthToRoot[junction] = length;
+		lastJunction[junction] = previousJunction;
+		lastRoad[junction] = road;
+	}
+}
@@ -0,0 +1,216 @@
+import java.util.function.IntFunction;
+/**
+ * Class answers queries from full shortest path trees grown from both
+ * junctions of the start road. The trees are kept until a query starts on
+ * another road, so every query of a group sharing the start road is
+ * answered without a new search: the lot offsets from
+ * {@link RoadNetwork#lengthToLot} are added to the tree lengths of the
+ * start and goal junctions. Queries should come grouped by start road,
+ * see {@link QueryPlanner}.
+ *
+ * A tree path never needs to cross the start or goal road: going round
+ * through the other junction of the road is always longer than stopping
+ * at it, so the shortest combination never uses such a path.
+ *
+ * The trees can be grown by {@link DeltaStepping} on several cores instead
+ * of by the sequential search, with the same lengths.
+ *
+ * When roads change, the trees are only grown again if a changed road
+ * was in a tree and got longer, or got short enough to give some junction
+ * a shorter path.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class ShortestPathTreeSearch implements SearchEngine {
+	/** The road network to search. */
+	private final RoadNetwork network;
+	/** The trees from junction 1 and junction 2 of the start road. */
+	private final SearchWorkspace[] trees = new SearchWorkspace[2];
+	/** The start road of the trees, -1 before the first query. */
+	private int treeRoad = -1;
+	/** The version of the network the trees are exact for. */
+	private int treeVersion;
+	/** Grows the trees in parallel, or null to grow them sequentially. */
+	private final DeltaStepping stepping;
+	/** The path of the last query. */
+	private final PathBuilder path;
+
+	/**
+	 * Description: Constructor with two arguments.
+	 *
+	 * @param network:
+	 *            The road network to search.
+	 * @param queueType:
+	 *            The name of the priority queue.
+	 */
+	public ShortestPathTreeSearch(RoadNetwork network, String queueType) {
+		this(network, queueType, null);
+	}
+
+	/**
+	 * Description: Constructor with three arguments.
+	 *
+	 * @param network:
+	 *            The road network to search.
+	 * @param queueType:
+	 *            The name of the priority queue.
+	 * @param stepping:
+	 *            Grows the trees in parallel, or null to grow them
+	 *            sequentially.
+	 */
+	public ShortestPathTreeSearch(RoadNetwork network, String queueType, DeltaStepping stepping) {
+		this(network, SearchWorkspace.workspaces(queueType), stepping);
+	}
+
+	/**
+	 * Description: Constructor with three arguments.
+	 *
+	 * @param network:
+	 *            The road network to search.
+	 * @param workspaces:
+	 *            Creates the search workspaces from the number of junctions.
+	 * @param stepping:
+	 *            Grows the trees in parallel, or null to grow them
+	 *            sequentially.
+	 */
+	public ShortestPathTreeSearch(RoadNetwork network, IntFunction<SearchWorkspace> workspaces, DeltaStepping stepping) {
+		this.network = network;
+		this.stepping = stepping;
+		this.path = new PathBuilder(network);
+		for (int i = 0; i < trees.length; i++) {
+			trees[i] = workspaces.apply(network.getJunctionCount());
+		}
+	}
+
+	@Override
+	public boolean route(int startLotNumber, int startRoad, int endLotNumber, int endRoad) {
+		if (startRoad != treeRoad || !treesSurviveChanges()) {
+			grow(trees[0], network.getRoadJunction1(startRoad));
+			grow(trees[1], network.getRoadJunction2(startRoad));
+			treeRoad = startRoad;
+		}
+		treeVersion = network.getVersion();
+		int[] roots = { network.getRoadJunction1(startRoad), network.getRoadJunction2(startRoad) };
+		int[] goals = { network.getRoadJunction1(endRoad), network.getRoadJunction2(endRoad) };
+
+		/* Picks the shortest of the four root and goal junction pairs. */
+		double shortestLength = Double.MAX_VALUE;
+		int bestTree = -1;
+		int bestGoal = -1;
+		for (int tree = 0; tree < trees.length; tree++) {
+			double rootLength = network.lengthToLot(startRoad, roots[tree], startLotNumber);
+			for (int goal : goals) {
+				if (!trees[tree].isReached(goal)) {
+					continue;
+				}
+				double length = rootLength + trees[tree].getLengthToRoot(goal)
+						+ network.lengthToLot(endRoad, goal, endLotNumber);
+				if (length < shortestLength) {
+					shortestLength = length;
+					bestTree = tree;
+					bestGoal = goal;
+				}
+			}
+		}
+		if (bestTree == -1) {
+			return false;
+		}
+		path.walkBack(trees[bestTree], bestGoal, startRoad);
+		path.finish(startLotNumber, endRoad, endLotNumber);
+		return true;
+	}
+
+	/**
+	 * Description: Checks whether the trees are still exact after the road
+	 * changes made since they were last checked.
+	 */
+	private boolean treesSurviveChanges() {
+		for (int version = treeVersion + 1; version <= network.getVersion(); version++) {
+			int road = network.getChangedRoad(version);
+			int junction1 = network.getRoadJunction1(road);
+			int junction2 = network.getRoadJunction2(road);
+			for (SearchWorkspace tree : trees) {
+				if (network.isLonger(version)) {
+					/* A longer road only matters if the tree goes through it. */
+					if (tree.isReached(junction1) && tree.getLastRoad(junction1) == road
+							|| tree.isReached(junction2) && tree.getLastRoad(junction2) == road) {
+						return false;
+					}
+				} else {
+					/* A shorter road only matters if it gives one of its ends a shorter path. */
+					int length = network.getChangedLength(version);
+					if (tree.getLengthToRoot(junction1) + length < tree.getLengthToRoot(junction2)
+							|| tree.getLengthToRoot(junction2) + length < tree.getLengthToRoot(junction1)) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Description: Grows the full shortest path tree from the root.
+	 */
+	private void grow(SearchWorkspace tree, int root) {
+		if (stepping != null) {
+			stepping.run(new int[] { root }, new double[] { 0 });
+			stepping.copyTo(tree);
+			return;
+		}
+		growTree(network, tree, root, null);
+	}
+
+	/**
+	 * Description: Grows the full shortest path tree from the root over the
+	 * open roads with Dijkstra's algorithm. The lengths and the last
+	 * junction and road of each reached junction are left in the workspace.
+	 *
+	 * @param network:
+	 *            The road network to search.
+	 * @param tree:
+	 *            The workspace to grow the tree in, reset first.
+	 * @param root:
+	 *            The id of the root junction.
+	 * @param settled:
+	 *            Filled with the junctions in the order they are settled, or
+	 *            null if the order is not needed.
+	 *
+	 * @return settledCount:
+	 *            The number of junctions settled, which is the number reached.
+	 */
+	public static int growTree(RoadNetwork network, SearchWorkspace tree, int root, int[] settled) {
+		tree.reset();
+		JunctionQueue queue = tree.getQueue();
+		tree.update(root, 0, -1, -1);
+		queue.add(root, 0);
+		int settledCount = 0;
+		while (!queue.isEmpty()) {
+			int current = queue.poll();
+			double currentLength = tree.getLengthToRoot(current);
+			if (queue.getPolledLength() > currentLength) {
+				continue;
+			}
+			if (settled != null) {
+				settled[settledCount] = current;
+			}
+			settledCount++;
+			for (int arc = network.firstArc(current); arc < network.lastArc(current); arc++) {
+				int next = network.getArcTarget(arc);
+				double newLength = currentLength + network.getArcLength(arc);
+				if (newLength < tree.getLengthToRoot(next)) {
+					tree.update(next, newLength, current, network.getArcRoad(arc));
+					queue.add(next, newLength);
+				}
+			}
+		}
+		return settledCount;
+	}
+
+	/* Accessors */
+	@Override
+	public PathBuilder getPath() {
+		return path;
+	}
+}
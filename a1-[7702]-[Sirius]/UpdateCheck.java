@@ -0,0 +1,186 @@
+import java.util.Random;
+/**
+ * Class checks that the engines follow road changes: on a small grid, a
+ * {@link FallbackSearch} leaves its preprocessing when a change affects
+ * it, is used again once the road is back as it was, and answers every
+ * query the same as {@link DijkstraSearch} on the live network throughout.
+ * A {@link QueryServer} with a {@link ResultCache} keeps a line through a
+ * change to a road off its path and drops it for a road on the path.
+ * Prints one line per check and exits with status 1 if any fails.
+ *
+ * Usage: java -cp a1-[7702]-[Sirius].jar UpdateCheck
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+public class UpdateCheck {
+	/** The junctions along each side of the grid. */
+	private static final int SIDE = 6;
+
+	/** The number of checks failed. */
+	private static int failures = 0;
+
+	/**
+	 * Description: Constructor without arguments, never used.
+	 */
+	private UpdateCheck() {
+	}
+
+	public static void main(String[] args) {
+		RoadNetwork network = grid();
+		ContractionHierarchy hierarchy = ContractionHierarchy.build(network);
+		checkFallback(network, "ch", hierarchy,
+				new ContractionHierarchySearch(network, hierarchy, SearchWorkspace.DEFAULT_QUEUE));
+		HubLabels labels = HubLabels.build(network);
+		checkFallback(network, "hub", labels, new HubLabelSearch(network, labels));
+		Landmarks landmarks = Landmarks.build(network, 4);
+		checkFallback(network, "alt", landmarks, new AltSearch(network, landmarks, SearchWorkspace.DEFAULT_QUEUE));
+		checkCache(network);
+		if (failures > 0) {
+			System.out.println(failures + " checks failed");
+			System.exit(1);
+		}
+		System.out.println("all checks passed");
+	}
+
+	/**
+	 * Description: Checks a fallback search through a road closed and
+	 * reopened, and a road shortened and set back.
+	 */
+	private static void checkFallback(RoadNetwork network, String name, Preprocessing preprocessing,
+			SearchEngine engine) {
+		FallbackSearch search = new FallbackSearch(network, engine, preprocessing,
+				SearchWorkspace.workspaces(SearchWorkspace.DEFAULT_QUEUE));
+		DijkstraSearch dijkstra = new DijkstraSearch(network, SearchWorkspace.DEFAULT_QUEUE);
+		check(name + " answers before any change", sameAnswers(network, search, dijkstra));
+		check(name + " uses its preprocessing before any change", search.isCurrent());
+
+		/* Landmarks survive every closure, so only the other preprocessing has a road to close. */
+		int closed = -1;
+		for (int road = 0; road < network.getRoadCount() && closed == -1; road++) {
+			if (!preprocessing.survivesChange(road, true)) {
+				closed = road;
+			}
+		}
+		if (closed != -1) {
+			network.closeRoad(closed);
+			check(name + " answers with a used road closed", sameAnswers(network, search, dijkstra));
+			check(name + " falls back with a used road closed", !search.isCurrent());
+			network.openRoad(closed);
+			check(name + " answers with the road reopened", sameAnswers(network, search, dijkstra));
+			check(name + " uses its preprocessing again with the road reopened", search.isCurrent());
+		}
+
+		int road = network.getRoadCount() / 2;
+		int length = network.getRoadLength(road);
+		network.setRoadLength(road, length / 2);
+		check(name + " answers with a road shortened", sameAnswers(network, search, dijkstra));
+		check(name + " falls back with a road shortened", !search.isCurrent());
+		network.setRoadLength(road, length);
+		check(name + " answers with the road set back", sameAnswers(network, search, dijkstra));
+		check(name + " uses its preprocessing again with the road set back", search.isCurrent());
+	}
+
+	/**
+	 * Description: Checks a query repeated through a query server with a
+	 * cache while roads off and on its path are closed and reopened.
+	 */
+	private static void checkCache(RoadNetwork network) {
+		ResultCache cache = new ResultCache(network, 16);
+		QueryServer server = new QueryServer(network,
+				cache.wrap(() -> new DijkstraSearch(network, SearchWorkspace.DEFAULT_QUEUE)));
+		DijkstraSearch dijkstra = new DijkstraSearch(network, SearchWorkspace.DEFAULT_QUEUE);
+		int startRoad = 0;
+		int endRoad = network.getRoadCount() - 1;
+		String query = "1" + network.getRoadName(startRoad) + " ; 2" + network.getRoadName(endRoad);
+		dijkstra.route(1, startRoad, 2, endRoad);
+		PathBuilder path = dijkstra.getPath();
+		int onPath = path.getRoad(path.getJunctionCount() / 2);
+		int offPath = -1;
+		for (int road = 0; road < network.getRoadCount() && offPath == -1; road++) {
+			if (road != path.getEndRoad() && !onPath(path, road)) {
+				offPath = road;
+			}
+		}
+
+		String line = server.answer(query);
+		check("cache misses a new query", cache.getHits() == 0 && cache.getMisses() == 1);
+		check("cache hits a repeated query", server.answer(query).equals(line) && cache.getHits() == 1);
+		server.answer("close " + network.getRoadName(offPath));
+		check("cache hits a repeated query after a road off its path closes",
+				server.answer(query).equals(line) && cache.getHits() == 2);
+		server.answer("open " + network.getRoadName(offPath));
+		check("cache misses after a road is reopened", server.answer(query).equals(line) && cache.getMisses() == 2);
+		server.answer("length " + network.getRoadName(offPath) + " " + network.getRoadLength(offPath) * 2);
+		check("cache hits a repeated query after a road off its path gets longer",
+				server.answer(query).equals(line) && cache.getHits() == 3);
+		server.answer("close " + network.getRoadName(onPath));
+		String detour = server.answer(query);
+		check("cache misses after a road on its path closes", cache.getMisses() == 3);
+		check("cache answers as a search after a road on its path closes",
+				detour.equals(Assignment.findPath(network, dijkstra, 1, startRoad, 2, endRoad)));
+		server.answer("open " + network.getRoadName(onPath));
+		check("cache answers as before with the road reopened", server.answer(query).equals(line));
+	}
+
+	/**
+	 * Description: Checks whether a road leads to a junction of a path.
+	 */
+	private static boolean onPath(PathBuilder path, int road) {
+		for (int i = 0; i < path.getJunctionCount(); i++) {
+			if (path.getRoad(i) == road) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Description: Checks that two engines answer a query from every road
+	 * to every fifth road alike.
+	 */
+	private static boolean sameAnswers(RoadNetwork network, SearchEngine engine, SearchEngine expected) {
+		for (int startRoad = 0; startRoad < network.getRoadCount(); startRoad++) {
+			for (int endRoad = startRoad % 5; endRoad < network.getRoadCount(); endRoad += 5) {
+				String result = Assignment.findPath(network, engine, 1, startRoad, 2, endRoad);
+				if (!result.equals(Assignment.findPath(network, expected, 1, startRoad, 2, endRoad))) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Description: Prints the outcome of one check.
+	 */
+	private static void check(String description, boolean passed) {
+		System.out.println((passed ? "ok   " : "FAIL ") + description);
+		if (!passed) {
+			failures++;
+		}
+	}
+
+	/**
+	 * Description: Builds a grid of roads with random lengths, the same on
+	 * every run.
+	 */
+	private static RoadNetwork grid() {
+		Random random = new Random(7702);
+		RoadNetworkBuilder builder = new RoadNetworkBuilder();
+		for (int row = 0; row < SIDE; row++) {
+			for (int column = 0; column < SIDE; column++) {
+				String junction = "J" + row + "_" + column;
+				if (column + 1 < SIDE) {
+					builder.addRoad("H" + row + "_" + column, junction, "J" + row + "_" + (column + 1),
+							10 + random.nextInt(90), 4);
+				}
+				if (row + 1 < SIDE) {
+					builder.addRoad("V" + row + "_" + column, junction, "J" + (row + 1) + "_" + column,
+							10 + random.nextInt(90), 4);
+				}
+			}
+		}
+		return builder.build();
+	}
+}
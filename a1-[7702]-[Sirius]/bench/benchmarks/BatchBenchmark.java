@@ -0,0 +1,64 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+/**
+ * Class measures the throughput of answering a whole query file with
+ * BatchSearch, the way Assignment answers it, for each mode
+ * and thread count. The queries are grouped by start road once per trial.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BatchBenchmark {
+	/** The map to search. */
+	@Param({ "small", "medium", "grid:300" })
+	public String map;
+
+	/** The search mode. */
+	@Param({ "dijkstra", "tree", "ch", "hub" })
+	public String mode;
+
+	/** The number of worker threads. */
+	@Param({ "1", "2", "4" })
+	public int threads;
+
+	/** The batch search over the map. */
+	private Object batch;
+	/** The queries of the map. */
+	private List<?> queries;
+	/** The order to answer the queries in. */
+	private int[] order;
+
+	@Setup
+	public void setUp() throws Throwable {
+		Object options = Harness.options("-mode", mode, "-snapshot", "false");
+		Object network = Harness.loadNetwork(Maps.environmentFile(map), options);
+		queries = Harness.readQueries(Maps.queryFile(map), network);
+		order = Harness.groupByStartRoad(queries, network);
+		batch = Harness.batch(network, threads, Harness.engines(network, options));
+	}
+
+	@Benchmark
+	public String[] batch() throws Throwable {
+		return Harness.runBatch(batch, queries, order);
+	}
+}
@@ -0,0 +1,160 @@
+package benchmarks;
+
+import java.io.Reader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.function.Supplier;
+/**
+ * Class calls the search classes for the benchmarks. JMH only runs
+ * benchmarks in a named package, and a named package cannot import the
+ * classes of the default package, so they are looked up by name once and
+ * called through method handles. The handles add a few nanoseconds to a
+ * call, far below any search.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+final class Harness {
+	/** SearchOptions.parse(String[], int). */
+	private static final MethodHandle PARSE_OPTIONS;
+	/** Assignment.loadNetwork(String, SearchOptions). */
+	private static final MethodHandle LOAD_NETWORK;
+	/** Assignment.createEngines(RoadNetwork, SearchOptions). */
+	private static final MethodHandle CREATE_ENGINES;
+	/** Assignment.readQueries(String, RoadNetwork). */
+	private static final MethodHandle READ_QUERIES;
+	/** Assignment.findPath(RoadNetwork, SearchEngine, int, int, int, int). */
+	private static final MethodHandle FIND_PATH;
+	/** RoadNetwork.getRoadCount(). */
+	private static final MethodHandle ROAD_COUNT;
+	/** QueryPlanner.groupByStartRoad(List, int). */
+	private static final MethodHandle GROUP_BY_START_ROAD;
+	/** new BatchSearch(RoadNetwork, int, Supplier). */
+	private static final MethodHandle NEW_BATCH;
+	/** BatchSearch.run(List, int[]). */
+	private static final MethodHandle RUN_BATCH;
+	/** new QueryScanner(Reader, RoadNetwork). */
+	private static final MethodHandle NEW_SCANNER;
+	/** QueryScanner.next(). */
+	private static final MethodHandle NEXT_QUERY;
+	/** NetworkGenerator.main(String[]). */
+	private static final MethodHandle GENERATE;
+	/** The getters of the start lot, start road, end lot and end road of a Query. */
+	private static final MethodHandle[] QUERY_FIELDS = new MethodHandle[4];
+
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			Class<?> options = Class.forName("SearchOptions");
+			Class<?> network = Class.forName("RoadNetwork");
+			Class<?> engine = Class.forName("SearchEngine");
+			Class<?> assignment = Class.forName("Assignment");
+			Class<?> query = Class.forName("Query");
+			Class<?> batch = Class.forName("BatchSearch");
+			Class<?> scanner = Class.forName("QueryScanner");
+			PARSE_OPTIONS = lookup.findStatic(options, "parse", MethodType.methodType(options, String[].class, int.class));
+			LOAD_NETWORK = lookup.findStatic(assignment, "loadNetwork",
+					MethodType.methodType(network, String.class, options));
+			CREATE_ENGINES = lookup.findStatic(assignment, "createEngines",
+					MethodType.methodType(Supplier.class, network, options));
+			READ_QUERIES = lookup.findStatic(assignment, "readQueries",
+					MethodType.methodType(List.class, String.class, network));
+			FIND_PATH = lookup.findStatic(assignment, "findPath", MethodType.methodType(String.class, network, engine,
+					int.class, int.class, int.class, int.class));
+			ROAD_COUNT = lookup.findVirtual(network, "getRoadCount", MethodType.methodType(int.class));
+			GROUP_BY_START_ROAD = lookup.findStatic(Class.forName("QueryPlanner"), "groupByStartRoad",
+					MethodType.methodType(int[].class, List.class, int.class));
+			NEW_BATCH = lookup.findConstructor(batch, MethodType.methodType(void.class, network, int.class,
+					Supplier.class));
+			RUN_BATCH = lookup.findVirtual(batch, "run", MethodType.methodType(String[].class, List.class, int[].class));
+			NEW_SCANNER = lookup.findConstructor(scanner, MethodType.methodType(void.class, Reader.class, network));
+			NEXT_QUERY = lookup.findVirtual(scanner, "next", MethodType.methodType(query));
+			GENERATE = lookup.findStatic(Class.forName("NetworkGenerator"), "main",
+					MethodType.methodType(void.class, String[].class));
+			String[] getters = { "getStartLotNumber", "getStartRoad", "getEndLotNumber", "getEndRoad" };
+			for (int i = 0; i < getters.length; i++) {
+				QUERY_FIELDS[i] = lookup.findVirtual(query, getters[i], MethodType.methodType(int.class));
+			}
+		} catch (ReflectiveOperationException ex) {
+			throw new ExceptionInInitializerError(ex);
+		}
+	}
+
+	/**
+	 * Description: Constructor without arguments, never used.
+	 */
+	private Harness() {
+	}
+
+	/**
+	 * Description: Writes a synthetic map with NetworkGenerator, given
+	 * its command line.
+	 */
+	static void generate(String... args) throws Throwable {
+		GENERATE.invoke(args);
+	}
+
+	static Object options(String... args) throws Throwable {
+		return PARSE_OPTIONS.invoke(args, 0);
+	}
+
+	static Object loadNetwork(String environmentFile, Object options) throws Throwable {
+		return LOAD_NETWORK.invoke(environmentFile, options);
+	}
+
+	static Supplier<?> engines(Object network, Object options) throws Throwable {
+		return (Supplier<?>) CREATE_ENGINES.invoke(network, options);
+	}
+
+	static List<?> readQueries(String queryFile, Object network) throws Throwable {
+		return (List<?>) READ_QUERIES.invoke(queryFile, network);
+	}
+
+	static String findPath(Object network, Object engine, int startLotNumber, int startRoad, int endLotNumber,
+			int endRoad) throws Throwable {
+		return (String) FIND_PATH.invoke(network, engine, startLotNumber, startRoad, endLotNumber, endRoad);
+	}
+
+	/**
+	 * Description: Gets the queries as ints: start lot, start road, end lot
+	 * and end road of each in turn.
+	 */
+	static int[] queryFields(List<?> queries) throws Throwable {
+		int[] fields = new int[queries.size() * 4];
+		for (int i = 0; i < queries.size(); i++) {
+			for (int field = 0; field < 4; field++) {
+				fields[i * 4 + field] = (int) QUERY_FIELDS[field].invoke(queries.get(i));
+			}
+		}
+		return fields;
+	}
+
+	static int[] groupByStartRoad(List<?> queries, Object network) throws Throwable {
+		return (int[]) GROUP_BY_START_ROAD.invoke(queries, (int) ROAD_COUNT.invoke(network));
+	}
+
+	static Object batch(Object network, int threads, Supplier<?> engines) throws Throwable {
+		return NEW_BATCH.invoke(network, threads, engines);
+	}
+
+	static String[] runBatch(Object batch, List<?> queries, int[] order) throws Throwable {
+		return (String[]) RUN_BATCH.invoke(batch, queries, order);
+	}
+
+	/**
+	 * Description: Scans every query of the reader.
+	 *
+	 * @return count:
+	 *            The number of queries.
+	 */
+	static int scanQueries(Reader reader, Object network) throws Throwable {
+		Object scanner = NEW_SCANNER.invoke(reader, network);
+		int count = 0;
+		while (NEXT_QUERY.invoke(scanner) != null) {
+			count++;
+		}
+		return count;
+	}
+}
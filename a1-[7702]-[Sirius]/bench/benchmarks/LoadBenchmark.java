@@ -0,0 +1,54 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+/**
+ * Class measures the time to load a map into a road network with each
+ * loader. Snapshots are turned off so every load parses the environment
+ * file.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoadBenchmark {
+	/** The map to load. */
+	@Param({ "small", "medium", "grid:300" })
+	public String map;
+
+	/** The loader to load it with. */
+	@Param({ "mapped", "graph" })
+	public String loader;
+
+	/** The environment file of the map. */
+	private String environmentFile;
+	/** The options naming the loader. */
+	private Object options;
+
+	@Setup
+	public void setUp() throws Throwable {
+		environmentFile = Maps.environmentFile(map);
+		options = Harness.options("-loader", loader, "-snapshot", "false");
+	}
+
+	@Benchmark
+	public Object load() throws Throwable {
+		return Harness.loadNetwork(environmentFile, options);
+	}
+}
@@ -0,0 +1,94 @@
+package benchmarks;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+/**
+ * Class finds the maps the benchmarks run over. "small" and "medium" are
+ * checked in under bench/maps, found through the bench.maps property.
+ * "grid:N" is an N by N grid made by NetworkGenerator, as the scale tests
+ * use, written once to the temporary directory with a query file of random
+ * lots. The files are written under temporary names and moved into place,
+ * so a run cut short never leaves a partial map to be reused.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+final class Maps {
+	/** The number of queries written for a synthetic map. */
+	private static final int SYNTHETIC_QUERIES = 2000;
+
+	/**
+	 * Description: Constructor without arguments, never used.
+	 */
+	private Maps() {
+	}
+
+	/**
+	 * Description: Gets the environment file of a map.
+	 *
+	 * @param map:
+	 *            The name of the map.
+	 *
+	 * @return fileName:
+	 *            The environment file.
+	 */
+	static String environmentFile(String map) throws Throwable {
+		return file(map, "");
+	}
+
+	/**
+	 * Description: Gets the query file of a map.
+	 *
+	 * @param map:
+	 *            The name of the map.
+	 *
+	 * @return fileName:
+	 *            The query file.
+	 */
+	static String queryFile(String map) throws Throwable {
+		return file(map, "-queries");
+	}
+
+	/**
+	 * Description: Finds a file of the map, writing a synthetic map first if
+	 * it is missing.
+	 */
+	private static String file(String map, String suffix) throws Throwable {
+		if (!map.startsWith("grid:")) {
+			return new File(System.getProperty("bench.maps", "bench/maps"), map + suffix + ".txt").getPath();
+		}
+		int size = Integer.parseInt(map.substring("grid:".length()));
+		File directory = new File(System.getProperty("java.io.tmpdir"));
+		File environment = new File(directory, "bench-generated-grid" + size + ".txt");
+		File queries = new File(directory, "bench-generated-grid" + size + "-queries.txt");
+		synchronized (Maps.class) {
+			if (!environment.exists() || !queries.exists()) {
+				writeGrid(size, directory, environment, queries);
+			}
+		}
+		return (suffix.isEmpty() ? environment : queries).getPath();
+	}
+
+	/**
+	 * Description: Writes an N by N grid and its queries under temporary
+	 * names, then moves them into place, the environment file last. The
+	 * seed is N, so the same map is written every time.
+	 */
+	private static void writeGrid(int size, File directory, File environment, File queries) throws Throwable {
+		File partialEnvironment = File.createTempFile("bench-grid", ".txt", directory);
+		File partialQueries = File.createTempFile("bench-grid", "-queries.txt", directory);
+		try {
+			Harness.generate("grid", Integer.toString(size * size), partialEnvironment.getPath(),
+					partialQueries.getPath(), "-queries", Integer.toString(SYNTHETIC_QUERIES), "-seed",
+					Integer.toString(size));
+			Files.move(partialQueries.toPath(), queries.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			Files.move(partialEnvironment.toPath(), environment.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(partialEnvironment.toPath());
+			Files.deleteIfExists(partialQueries.toPath());
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package benchmarks;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+/**
+ * Class measures parsing a query file held in memory, apart from any disk
+ * reads, so changes to the query scanner show up on their own.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParseBenchmark {
+	/** The map whose queries are parsed. */
+	@Param({ "small", "medium", "grid:300" })
+	public String map;
+
+	/** The road network resolving the road names. */
+	private Object network;
+	/** The text of the query file. */
+	private String text;
+
+	@Setup
+	public void setUp() throws Throwable {
+		network = Harness.loadNetwork(Maps.environmentFile(map), Harness.options("-snapshot", "false"));
+		text = new String(Files.readAllBytes(Paths.get(Maps.queryFile(map))), StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public int parse() throws Throwable {
+		return Harness.scanQueries(new StringReader(text), network);
+	}
+}
@@ -0,0 +1,90 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+/**
+ * Class measures the latency of a single query for each search mode. The
+ * preprocessing of a mode is built once per trial; each benchmark thread
+ * has its own engine and walks the queries of the map in turn, so the
+ * sample covers the whole query file rather than one repeated pair.
+ *
+ * @author Sirius
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class QueryBenchmark {
+
+	/**
+	 * Class holds the network, the prepared engines and the queries of a
+	 * trial.
+	 */
+	@State(Scope.Benchmark)
+	public static class Network {
+		/** The map to search. */
+		@Param({ "small", "medium", "grid:300" })
+		public String map;
+
+		/** The search mode. */
+		@Param({ "dijkstra", "bidirectional", "tree", "delta", "alt", "ch", "hub" })
+		public String mode;
+
+		/** The road network. */
+		private Object network;
+		/** The supplier of engines of the mode. */
+		private Supplier<?> engines;
+		/** The start lot, start road, end lot and end road of each query. */
+		private int[] queries;
+
+		@Setup
+		public void setUp() throws Throwable {
+			Object options = Harness.options("-mode", mode, "-snapshot", "false");
+			network = Harness.loadNetwork(Maps.environmentFile(map), options);
+			engines = Harness.engines(network, options);
+			List<?> list = Harness.readQueries(Maps.queryFile(map), network);
+			queries = Harness.queryFields(list);
+		}
+	}
+
+	/**
+	 * Class holds the engine of a benchmark thread and its place in the
+	 * queries.
+	 */
+	@State(Scope.Thread)
+	public static class Engine {
+		/** The engine of the thread. */
+		private Object engine;
+		/** The first field of the next query. */
+		private int next;
+
+		@Setup
+		public void setUp(Network network) {
+			engine = network.engines.get();
+		}
+	}
+
+	@Benchmark
+	public String query(Network network, Engine engine) throws Throwable {
+		int[] queries = network.queries;
+		int i = engine.next;
+		engine.next = i + 4 < queries.length ? i + 4 : 0;
+		return Harness.findPath(network.network, engine.engine, queries[i], queries[i + 1], queries[i + 2],
+				queries[i + 3]);
+	}
+}